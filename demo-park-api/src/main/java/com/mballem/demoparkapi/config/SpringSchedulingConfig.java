@@ -0,0 +1,9 @@
+package com.mballem.demoparkapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@EnableScheduling // Habilita a execução de tarefas agendadas (@Scheduled)
+@Configuration
+public class SpringSchedulingConfig {
+}
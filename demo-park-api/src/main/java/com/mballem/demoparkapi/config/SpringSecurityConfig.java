@@ -36,9 +36,12 @@ public class SpringSecurityConfig {
                 .httpBasic(basic -> basic.disable())
                 // Configuração de autorização para diferentes tipos de requisição
                 .authorizeHttpRequests(auth -> auth
-                        // Permite acesso público às requisições POST para "/api/v1/usuarios" e "/api/v1/auth"
+                        // Permite acesso público às requisições POST para "/api/v1/usuarios", "/api/v1/auth" e "/api/v1/auth/refresh"
                         .requestMatchers(antMatcher(HttpMethod.POST, "/api/v1/usuarios")).permitAll()
                         .requestMatchers(antMatcher(HttpMethod.POST, "/api/v1/auth")).permitAll()
+                        .requestMatchers(antMatcher(HttpMethod.POST, "/api/v1/auth/refresh")).permitAll()
+                        // Permite acesso público à ocupação das vagas, exibida nos painéis do estacionamento
+                        .requestMatchers(antMatcher(HttpMethod.GET, "/api/v1/vagas/ocupacao")).permitAll()
                         // Permite acesso público aos endpoints do Swagger e da documentação
                         .requestMatchers(
                                 antMatcher("/docs-park.html"),
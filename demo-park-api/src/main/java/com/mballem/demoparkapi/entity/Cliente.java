@@ -17,7 +17,7 @@ import java.util.Objects;
 
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor
 @Entity
-@Table(name = "clientes")
+@Table(name = "clientes", indexes = @Index(name = "idx_clientes_nome", columnList = "nome"))
 @EntityListeners(AuditingEntityListener.class)
 public class Cliente implements Serializable {
 
@@ -38,6 +38,10 @@ public class Cliente implements Serializable {
     @JoinColumn(name = "id_usuario", nullable = false)
     private Usuario usuario;
 
+    // Total de estacionamentos completos (com check-out), mantido a cada check-out
+    @Column(name = "total_estacionamentos", nullable = false, columnDefinition = "bigint default 0")
+    private long totalEstacionamentos;
+
     // Data de criação do registro (audit)
     @CreatedDate
     @Column(name = "data_criacao")
@@ -17,7 +17,10 @@ import java.util.Objects;
 
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor
 @Entity
-@Table(name = "clientes_tem_vagas")
+@Table(name = "clientes_tem_vagas", indexes = {
+        @Index(name = "idx_clientes_tem_vagas_data_entrada", columnList = "data_entrada"),
+        @Index(name = "idx_clientes_tem_vagas_cliente_data_entrada", columnList = "id_cliente, data_entrada")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class ClienteVaga {
 
@@ -71,6 +74,14 @@ public class ClienteVaga {
     @JoinColumn(name = "id_vaga", nullable = false)
     private Vaga vaga;
 
+    // Código da vaga informada no check-in, quando o check-in foi transferido para outra vaga ao ser gravado
+    @Column(name = "vaga_informada", length = 10)
+    private String vagaInformada;
+
+    // Indica que a vaga é compartilhada com outro check-in em aberto, por já estar ocupada quando o check-in foi gravado
+    @Column(name = "conflito_vaga")
+    private Boolean conflitoVaga;
+
     // Data de criação do registro (audit)
     @CreatedDate
     @Column(name = "data_criacao")
@@ -0,0 +1,44 @@
+package com.mballem.demoparkapi.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Registro de uma migração de dados já executada, para que cada migração seja aplicada uma única vez.
+ */
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+@Entity
+@Table(name = "migracoes_dados")
+public class MigracaoDados implements Serializable {
+
+    // Nome único da migração
+    @Id
+    @Column(name = "nome", length = 100)
+    private String nome;
+
+    // Data em que a migração foi executada
+    @Column(name = "data_execucao", nullable = false)
+    private LocalDateTime dataExecucao;
+
+    // Método equals para comparar objetos MigracaoDados
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MigracaoDados that = (MigracaoDados) o;
+        return Objects.equals(nome, that.nome);
+    }
+
+    // Método hashCode para calcular o hash do objeto MigracaoDados
+    @Override
+    public int hashCode() {
+        return Objects.hash(nome);
+    }
+}
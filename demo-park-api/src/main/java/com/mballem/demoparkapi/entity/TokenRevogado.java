@@ -0,0 +1,45 @@
+package com.mballem.demoparkapi.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Identificador (jti) de um token JWT que não pode mais ser usado, por já ter sido renovado.
+ * O registro só precisa existir até o fim do prazo em que o token ainda poderia ser aceito.
+ */
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+@Entity
+@Table(name = "tokens_revogados", indexes = @Index(name = "idx_tokens_revogados_expira_em", columnList = "expira_em"))
+public class TokenRevogado implements Serializable {
+
+    // Identificador único do token (claim jti)
+    @Id
+    @Column(name = "jti", length = 22)
+    private String jti;
+
+    // Data a partir da qual o token deixa de ser aceito mesmo sem a revogação
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+
+    // Método equals para comparar objetos TokenRevogado
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TokenRevogado that = (TokenRevogado) o;
+        return Objects.equals(jti, that.jti);
+    }
+
+    // Método hashCode para calcular o hash do objeto TokenRevogado
+    @Override
+    public int hashCode() {
+        return Objects.hash(jti);
+    }
+}
@@ -0,0 +1,13 @@
+package com.mballem.demoparkapi.exception;
+
+import lombok.Getter;
+
+@Getter
+public class AutenticacaoSobrecarregadaException extends RuntimeException {
+
+    private int retryAfter;
+
+    public AutenticacaoSobrecarregadaException(int retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+}
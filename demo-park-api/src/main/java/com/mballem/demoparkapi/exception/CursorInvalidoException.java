@@ -0,0 +1,5 @@
+package com.mballem.demoparkapi.exception;
+
+public class CursorInvalidoException extends RuntimeException {
+
+}
@@ -0,0 +1,13 @@
+package com.mballem.demoparkapi.exception;
+
+import lombok.Getter;
+
+@Getter
+public class LoteInvalidoException extends RuntimeException {
+
+    private int tamanhoMaximo;
+
+    public LoteInvalidoException(int tamanhoMaximo) {
+        this.tamanhoMaximo = tamanhoMaximo;
+    }
+}
@@ -0,0 +1,13 @@
+package com.mballem.demoparkapi.exception;
+
+import lombok.Getter;
+
+@Getter
+public class OrdenacaoCursorInvalidaException extends RuntimeException {
+
+    private String ordenacao;
+
+    public OrdenacaoCursorInvalidaException(String ordenacao) {
+        this.ordenacao = ordenacao;
+    }
+}
@@ -0,0 +1,5 @@
+package com.mballem.demoparkapi.exception;
+
+public class TokenRefreshInvalidoException extends RuntimeException {
+
+}
@@ -0,0 +1,17 @@
+package com.mballem.demoparkapi.jwt;
+
+/**
+ * Propaga a invalidação dos dados em cache de um usuário alterado.
+ * Em uma instalação com várias instâncias da aplicação, a implementação deve entregar a invalidação a todas
+ * as instâncias (por exemplo, por um tópico de mensagens), e cada instância deve chamar
+ * {@link InvalidacaoUsuarioLocal#invalidar(String)} ao recebê-la.
+ */
+public interface InvalidacaoUsuarioBroadcaster {
+
+    /**
+     * Publica a invalidação dos dados em cache de um usuário.
+     *
+     * @param username Username do usuário alterado
+     */
+    void publicar(String username);
+}
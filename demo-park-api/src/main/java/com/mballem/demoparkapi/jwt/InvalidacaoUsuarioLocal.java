@@ -0,0 +1,36 @@
+package com.mballem.demoparkapi.jwt;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Implementação da invalidação restrita à instância corrente da aplicação, usada em instalações com uma
+ * única instância e nos testes. Para várias instâncias, declare outra implementação de
+ * {@link InvalidacaoUsuarioBroadcaster} como {@code @Primary} e chame {@link #invalidar(String)} ao receber
+ * cada mensagem.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class InvalidacaoUsuarioLocal implements InvalidacaoUsuarioBroadcaster {
+
+    private final JwtUserDetailsCache userDetailsCache;
+    private final JwtTokenCache tokenCache;
+
+    @Override
+    public void publicar(String username) {
+        invalidar(username);
+    }
+
+    /**
+     * Remove dos caches desta instância os dados e os tokens verificados de um usuário.
+     *
+     * @param username Username do usuário alterado
+     */
+    public void invalidar(String username) {
+        log.debug("Invalidando os dados em cache do usuário {}", username);
+        userDetailsCache.remover(username);
+        tokenCache.removerPorUsername(username);
+    }
+}
@@ -1,11 +1,14 @@
 package com.mballem.demoparkapi.jwt;
 
+import com.mballem.demoparkapi.service.TokenRevogadoService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -20,6 +23,16 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUserDetailsService detailsService;
 
+    @Autowired
+    private JwtTokenCache tokenCache;
+
+    @Autowired
+    private TokenRevogadoService tokenRevogadoService;
+
+    // Quando habilitado, o usuário autenticado é criado a partir das claims do token, sem consultar o banco de dados
+    @Value("${demo-park.jwt.principal-stateless:false}")
+    private boolean principalStateless;
+
     /**
      * Intercepta e processa cada requisição para verificar a presença e validade do token JWT.
      * Caso o token seja válido, configura a autenticação do Spring Security para o usuário.
@@ -41,22 +54,41 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
             return;
         }
 
-        if (!JwtUtils.isTokenValid(token)) {
-            log.warn("JWT Token está inválido ou expirado.");
-            filterChain.doFilter(request, response);
-            return;
+        // Tokens já verificados dispensam a verificação da assinatura e a busca do usuário.
+        // Tokens revogados são removidos do cache no momento da revogação.
+        final String jwt = JwtUtils.refactorToken(token);
+        UserDetails userDetails = tokenCache.buscar(jwt);
+        if (userDetails == null) {
+            // A assinatura é verificada uma única vez e as claims obtidas são reutilizadas
+            Claims claims = JwtUtils.getClaimsFromToken(jwt);
+            if (claims == null) {
+                log.warn("JWT Token está inválido ou expirado.");
+                filterChain.doFilter(request, response);
+                return;
+            }
+            if (claims.getId() != null && tokenRevogadoService.isRevogado(claims.getId())) {
+                log.warn("JWT Token revogado.");
+                filterChain.doFilter(request, response);
+                return;
+            }
+            userDetails = loadUserDetails(claims);
+            tokenCache.adicionar(jwt, userDetails, claims.getExpiration());
         }
 
-        String username = JwtUtils.getUsernameFromToken(token);
-
-        authenticateUser(request, username);
+        authenticateUser(request, userDetails);
 
         filterChain.doFilter(request, response);
     }
 
-    private void authenticateUser(HttpServletRequest request, String username) {
-        UserDetails userDetails = detailsService.loadUserByUsername(username);
+    private UserDetails loadUserDetails(Claims claims) {
+        UserDetails userDetails = principalStateless ? JwtUtils.toUserDetails(claims) : null;
+        if (userDetails == null) {
+            userDetails = detailsService.loadUserByUsername(claims.getSubject());
+        }
+        return userDetails;
+    }
 
+    private void authenticateUser(HttpServletRequest request, UserDetails userDetails) {
         UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                 userDetails, null, userDetails.getAuthorities());
 
@@ -0,0 +1,168 @@
+package com.mballem.demoparkapi.jwt;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache em memória dos tokens JWT já verificados, indexados pelo próprio token (sem o prefixo "Bearer ").
+ * Requisições repetidas com o mesmo token dispensam a verificação da assinatura e a busca do usuário.
+ * Cada entrada expira no menor instante entre a expiração do token e o tempo de vida configurado, que limita
+ * por quanto tempo alterações no usuário deixam de ser refletidas. O cache é limitado pela capacidade
+ * configurada: quando cheio, o token usado há mais tempo é descartado (LRU) e volta a ser verificado na próxima
+ * requisição. Acertos, falhas, descartes e tamanho são exportados pelo Micrometer com o nome de cache "jwt-tokens".
+ */
+@Slf4j
+@Component
+public class JwtTokenCache implements MeterBinder {
+
+    private static final String NOME = "jwt-tokens";
+
+    private final int capacidade;
+    private final long tempoDeVida;
+    private final Map<String, Entrada> tokens;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder descartes = new LongAdder();
+
+    /**
+     * @param capacidade  Quantidade máxima de tokens mantidos no cache (0 desabilita o cache)
+     * @param tempoDeVida Tempo máximo (ms) que um token verificado permanece no cache
+     */
+    public JwtTokenCache(@Value("${demo-park.jwt.cache.capacidade:10000}") int capacidade,
+                         @Value("${demo-park.jwt.cache.tempo-de-vida:300000}") long tempoDeVida) {
+        this.capacidade = capacidade;
+        this.tempoDeVida = tempoDeVida;
+        // Ordenado por acesso: a entrada mais antiga é a usada há mais tempo
+        this.tokens = Collections.synchronizedMap(new LinkedHashMap<>(Math.min(capacidade, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> maisAntigo) {
+                if (size() > JwtTokenCache.this.capacidade) {
+                    descartes.increment();
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Busca os detalhes do usuário de um token já verificado e ainda não expirado.
+     *
+     * @param token Token JWT
+     * @return UserDetails do token ou null se o token não estiver no cache
+     */
+    public UserDetails buscar(String token) {
+        Entrada entrada = tokens.get(token);
+        if (entrada != null && entrada.expiraEm() > System.currentTimeMillis()) {
+            acertos.increment();
+            return entrada.userDetails();
+        }
+        falhas.increment();
+        return null;
+    }
+
+    /**
+     * Adiciona ao cache um token cuja assinatura acabou de ser verificada.
+     *
+     * @param token       Token JWT
+     * @param userDetails Detalhes do usuário autenticado pelo token
+     * @param expiracao   Data de expiração do token
+     */
+    public void adicionar(String token, UserDetails userDetails, Date expiracao) {
+        if (capacidade <= 0) {
+            return;
+        }
+        long expiraEm = Math.min(expiracao.getTime(), System.currentTimeMillis() + tempoDeVida);
+        tokens.put(token, new Entrada(userDetails, expiraEm));
+    }
+
+    /**
+     * Remove um token do cache, usado quando o token é revogado.
+     *
+     * @param token Token JWT
+     */
+    public void remover(String token) {
+        tokens.remove(token);
+    }
+
+    /**
+     * Remove do cache todos os tokens de um usuário, usado quando os dados do usuário são alterados.
+     *
+     * @param username Username do usuário
+     */
+    public void removerPorUsername(String username) {
+        synchronized (tokens) { // A iteração das visões do mapa sincronizado exige o bloqueio do próprio mapa
+            tokens.values().removeIf(entrada -> entrada.userDetails().getUsername().equals(username));
+        }
+    }
+
+    /**
+     * Remove periodicamente do cache os tokens expirados.
+     */
+    @Scheduled(initialDelayString = "${demo-park.jwt.cache.limpeza-intervalo:60000}",
+            fixedDelayString = "${demo-park.jwt.cache.limpeza-intervalo:60000}")
+    public void limpar() {
+        long agora = System.currentTimeMillis();
+        synchronized (tokens) {
+            tokens.values().removeIf(entrada -> entrada.expiraEm() <= agora);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", acertos, LongAdder::sum)
+                .tags("cache", NOME, "result", "hit")
+                .description("Tokens atendidos pelo cache, sem verificar a assinatura")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", falhas, LongAdder::sum)
+                .tags("cache", NOME, "result", "miss")
+                .description("Tokens não encontrados no cache ou expirados")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", descartes, LongAdder::sum)
+                .tags("cache", NOME)
+                .description("Tokens descartados por falta de capacidade")
+                .register(registry);
+        Gauge.builder("cache.size", tokens, Map::size)
+                .tags("cache", NOME)
+                .description("Quantidade de tokens no cache")
+                .register(registry);
+    }
+
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    /**
+     * @return Percentual de buscas atendidas pelo cache, entre 0 e 1
+     */
+    public double getTaxaDeAcertos() {
+        long acertos = getAcertos();
+        long total = acertos + getFalhas();
+        return total == 0 ? 0 : (double) acertos / total;
+    }
+
+    public int getTamanho() {
+        return tokens.size();
+    }
+
+    private record Entrada(UserDetails userDetails, long expiraEm) {
+    }
+}
@@ -10,7 +10,8 @@ import org.springframework.security.core.userdetails.User;
  */
 public class JwtUserDetails extends User {
 
-    private Usuario usuario;
+    private final Long id;
+    private final String role;
 
     /**
      * Construtor que inicializa os detalhes do usuário com base nos dados do objeto Usuario.
@@ -19,7 +20,34 @@ public class JwtUserDetails extends User {
      */
     public JwtUserDetails(Usuario usuario) {
         super(usuario.getUsername(), usuario.getPassword(), AuthorityUtils.createAuthorityList(usuario.getRole().name()));
-        this.usuario = usuario;
+        this.id = usuario.getId();
+        this.role = usuario.getRole().name();
+    }
+
+    /**
+     * Construtor que inicializa os detalhes do usuário com base nas claims de um token JWT já verificado,
+     * sem acesso ao banco de dados. A senha não faz parte do token e fica vazia.
+     *
+     * @param id       ID do usuário
+     * @param username Username do usuário
+     * @param role     Papel (role) do usuário, com o prefixo ROLE_
+     */
+    public JwtUserDetails(Long id, String username, String role) {
+        this(id, username, "", role);
+    }
+
+    /**
+     * Construtor que inicializa os detalhes do usuário com base em dados já carregados do usuário.
+     *
+     * @param id       ID do usuário
+     * @param username Username do usuário
+     * @param password Senha criptografada do usuário
+     * @param role     Papel (role) do usuário, com o prefixo ROLE_
+     */
+    public JwtUserDetails(Long id, String username, String password, String role) {
+        super(username, password, AuthorityUtils.createAuthorityList(role));
+        this.id = id;
+        this.role = role;
     }
 
     /**
@@ -28,7 +56,7 @@ public class JwtUserDetails extends User {
      * @return ID do usuário
      */
     public Long getId() {
-        return this.usuario.getId();
+        return this.id;
     }
 
     /**
@@ -37,6 +65,6 @@ public class JwtUserDetails extends User {
      * @return Papel do usuário
      */
     public String getRole() {
-        return this.usuario.getRole().name();
+        return this.role;
     }
 }
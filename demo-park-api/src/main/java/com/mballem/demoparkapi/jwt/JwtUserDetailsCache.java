@@ -0,0 +1,123 @@
+package com.mballem.demoparkapi.jwt;
+
+import com.mballem.demoparkapi.entity.Usuario;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache em memória dos dados dos usuários usados na autenticação, indexados pelo username.
+ * Guarda uma cópia imutável dos dados e cria um novo JwtUserDetails a cada busca, pois o Spring Security
+ * apaga a senha do principal após a autenticação. As entradas expiram após o tempo de vida configurado
+ * e são removidas quando o usuário é alterado (ver {@link InvalidacaoUsuarioBroadcaster}).
+ * O cache é limitado pela capacidade configurada: quando cheio, novos usuários deixam de ser adicionados
+ * até que a limpeza periódica libere espaço.
+ */
+@Component
+public class JwtUserDetailsCache {
+
+    private final int capacidade;
+    private final long tempoDeVida;
+    private final Map<String, Entrada> usuarios;
+
+    // Incrementada a cada remoção, impede que um usuário lido antes de uma alteração seja adicionado depois dela
+    private final AtomicLong versao = new AtomicLong();
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+
+    /**
+     * @param capacidade  Quantidade máxima de usuários mantidos no cache (0 desabilita o cache)
+     * @param tempoDeVida Tempo máximo (ms) que os dados de um usuário permanecem no cache
+     */
+    public JwtUserDetailsCache(@Value("${demo-park.jwt.usuarios-cache.capacidade:1000}") int capacidade,
+                               @Value("${demo-park.jwt.usuarios-cache.tempo-de-vida:300000}") long tempoDeVida) {
+        this.capacidade = capacidade;
+        this.tempoDeVida = tempoDeVida;
+        this.usuarios = new ConcurrentHashMap<>(Math.min(capacidade, 1024));
+    }
+
+    /**
+     * Busca os detalhes de um usuário ainda não expirado no cache.
+     *
+     * @param username Username do usuário
+     * @return Novo JwtUserDetails do usuário ou null se o usuário não estiver no cache
+     */
+    public JwtUserDetails buscar(String username) {
+        Entrada entrada = usuarios.get(username);
+        if (entrada != null && entrada.expiraEm() > System.currentTimeMillis()) {
+            acertos.increment();
+            return new JwtUserDetails(entrada.id(), username, entrada.password(), entrada.role());
+        }
+        falhas.increment();
+        return null;
+    }
+
+    /**
+     * Retorna a versão atual do cache, que deve ser obtida antes de carregar um usuário do banco de dados.
+     *
+     * @return Versão atual do cache
+     */
+    public long getVersao() {
+        return versao.get();
+    }
+
+    /**
+     * Adiciona ao cache os dados de um usuário carregado do banco de dados.
+     * O usuário não é adicionado se algum usuário foi removido do cache depois de iniciada a carga.
+     *
+     * @param usuario Usuário carregado do banco de dados
+     * @param versao  Versão do cache obtida antes da carga do usuário
+     */
+    public void adicionar(Usuario usuario, long versao) {
+        if (usuarios.size() >= capacidade || this.versao.get() != versao) { // Limite aproximado sob concorrência
+            return;
+        }
+        String username = usuario.getUsername();
+        usuarios.put(username, new Entrada(usuario.getId(), usuario.getPassword(),
+                usuario.getRole().name(), System.currentTimeMillis() + tempoDeVida));
+        if (this.versao.get() != versao) {
+            usuarios.remove(username); // Uma remoção ocorreu durante a inclusão
+        }
+    }
+
+    /**
+     * Remove um usuário do cache.
+     *
+     * @param username Username do usuário
+     */
+    public void remover(String username) {
+        versao.incrementAndGet();
+        usuarios.remove(username);
+    }
+
+    /**
+     * Remove periodicamente do cache os usuários expirados.
+     */
+    @Scheduled(initialDelayString = "${demo-park.jwt.cache.limpeza-intervalo:60000}",
+            fixedDelayString = "${demo-park.jwt.cache.limpeza-intervalo:60000}")
+    public void limpar() {
+        long agora = System.currentTimeMillis();
+        usuarios.values().removeIf(entrada -> entrada.expiraEm() <= agora);
+    }
+
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    public int getTamanho() {
+        return usuarios.size();
+    }
+
+    private record Entrada(Long id, String password, String role, long expiraEm) {
+    }
+}
@@ -1,21 +1,27 @@
 package com.mballem.demoparkapi.jwt;
 
 import com.mballem.demoparkapi.entity.Usuario;
+import com.mballem.demoparkapi.service.UsuarioAlteradoEvent;
 import com.mballem.demoparkapi.service.UsuarioService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 @RequiredArgsConstructor
 @Service
 public class JwtUserDetailsService implements UserDetailsService {
 
     private final UsuarioService usuarioService;
+    private final JwtUserDetailsCache userDetailsCache;
+    private final InvalidacaoUsuarioBroadcaster invalidacaoUsuario;
 
     /**
      * Carrega os detalhes do usuário com base no username fornecido.
+     * Os dados do usuário são servidos do cache quando disponíveis, evitando a consulta ao banco de dados.
      *
      * @param username Username do usuário
      * @return UserDetails contendo os detalhes do usuário
@@ -23,18 +29,34 @@ public class JwtUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        JwtUserDetails userDetails = userDetailsCache.buscar(username);
+        if (userDetails != null) {
+            return userDetails;
+        }
+        long versao = userDetailsCache.getVersao();
         Usuario usuario = usuarioService.buscarPorUsername(username);
+        userDetailsCache.adicionar(usuario, versao);
         return new JwtUserDetails(usuario);
     }
 
     /**
-     * Obtém um token JWT autenticado para o usuário especificado.
+     * Propaga a invalidação dos dados em cache de um usuário após o commit da sua alteração.
      *
-     * @param username Username do usuário
+     * @param event Evento de alteração do usuário
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        invalidacaoUsuario.publicar(event.username());
+    }
+
+    /**
+     * Obtém um token JWT para o usuário autenticado, sem nova consulta ao banco de dados.
+     *
+     * @param userDetails Detalhes do usuário autenticado
      * @return JwtToken contendo o token JWT autenticado
      */
-    public JwtToken getTokenAuthenticated(String username) {
-        Usuario.Role role = usuarioService.buscarRolePorUsername(username);
-        return JwtUtils.createToken(username, role.name().substring("ROLE_".length()));
+    public JwtToken getTokenAuthenticated(JwtUserDetails userDetails) {
+        return JwtUtils.createToken(userDetails.getId(), userDetails.getUsername(),
+                userDetails.getRole().substring(JwtUtils.ROLE_PREFIX.length()));
     }
 }
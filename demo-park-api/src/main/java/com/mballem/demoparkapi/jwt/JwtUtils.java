@@ -1,15 +1,19 @@
 package com.mballem.demoparkapi.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Base64;
 import java.util.Date;
 
 @Slf4j
@@ -21,6 +25,15 @@ public class JwtUtils {
     public static final long EXPIRE_DAYS = 0;
     public static final long EXPIRE_HOURS = 2;
     public static final long EXPIRE_MINUTES = 30;
+    public static final String CLAIM_ID = "id";
+    public static final String CLAIM_ROLE = "role";
+    public static final String ROLE_PREFIX = "ROLE_";
+
+    // Chave e parser são imutáveis e thread-safe, por isso são criados uma única vez e reutilizados
+    private static final SecretKey KEY = generateKey();
+    private static final JwtParser PARSER = Jwts.parser().verifyWith(KEY).build();
+
+    private static final SecureRandom RANDOM = new SecureRandom();
 
     private JwtUtils() {
     }
@@ -47,41 +60,77 @@ public class JwtUtils {
     }
 
     /**
-     * Cria um token JWT com o username e o papel (role) do usuário.
+     * Gera um identificador único (jti) para o token: 128 bits aleatórios em base64url, com 22 caracteres.
+     *
+     * @return Identificador do token
+     */
+    private static String generateJti() {
+        byte[] bytes = new byte[16];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Cria um token JWT com o ID, o username e o papel (role) do usuário.
      *
+     * @param id       ID do usuário
      * @param username Username do usuário
-     * @param role     Papel (role) do usuário
+     * @param role     Papel (role) do usuário, sem o prefixo ROLE_
      * @return JwtToken contendo o token JWT criado
      */
-    public static JwtToken createToken(String username, String role) {
+    public static JwtToken createToken(Long id, String username, String role) {
         Date issuedAt = new Date();
         Date limit = toExpireDate(issuedAt);
 
         String token = Jwts.builder()
                 .header().add("typ", "JWT")
                 .and()
+                .id(generateJti())
                 .subject(username)
                 .issuedAt(issuedAt)
                 .expiration(limit)
-                .signWith(generateKey(), Jwts.SIG.HS256)
-                .claim("role", role)
+                .signWith(KEY, Jwts.SIG.HS256)
+                .claim(CLAIM_ID, id)
+                .claim(CLAIM_ROLE, role)
                 .compact();
 
         return new JwtToken(token);
     }
 
     /**
-     * Extrai e retorna as claims (informações) do token JWT.
+     * Valida o token JWT e retorna as suas claims (informações) com uma única verificação da assinatura.
      *
      * @param token Token JWT
-     * @return Claims extraídas do token JWT
+     * @return Claims extraídas do token JWT ou null se o token for inválido ou estiver expirado
      */
-    private static Claims getClaimsFromToken(String token) {
+    public static Claims getClaimsFromToken(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(generateKey())
-                    .build().parseSignedClaims(refactorToken(token)).getPayload();
-        } catch (JwtException ex) {
+            return PARSER.parseSignedClaims(refactorToken(token)).getPayload();
+        } catch (JwtException | IllegalArgumentException ex) {
+            log.error(String.format("Token inválido %s", ex.getMessage()));
+        }
+        return null;
+    }
+
+    /**
+     * Valida a assinatura do token JWT e retorna as suas claims, aceitando tokens expirados há menos tempo
+     * que a tolerância informada. Usado somente na renovação do token.
+     *
+     * @param token      Token JWT
+     * @param tolerancia Tempo (ms) após a expiração em que o token ainda pode ser renovado
+     * @return Claims extraídas do token JWT ou null se o token for inválido ou tiver expirado além da tolerância
+     */
+    public static Claims getClaimsFromRefreshableToken(String token, long tolerancia) {
+        try {
+            return PARSER.parseSignedClaims(refactorToken(token)).getPayload();
+        } catch (ExpiredJwtException ex) {
+            // A exceção de expiração só é lançada após a verificação da assinatura
+            Claims claims = ex.getClaims();
+            if (claims.getExpiration().getTime() + tolerancia > System.currentTimeMillis()) {
+                return claims;
+            }
+            log.error(String.format("Token expirado além da tolerância de renovação %s", ex.getMessage()));
+        } catch (JwtException | IllegalArgumentException ex) {
             log.error(String.format("Token inválido %s", ex.getMessage()));
         }
         return null;
@@ -91,10 +140,11 @@ public class JwtUtils {
      * Extrai e retorna o username do token JWT.
      *
      * @param token Token JWT
-     * @return Username extraído do token JWT
+     * @return Username extraído do token JWT ou null se o token for inválido
      */
     public static String getUsernameFromToken(String token) {
-        return getClaimsFromToken(token).getSubject();
+        Claims claims = getClaimsFromToken(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
     /**
@@ -104,15 +154,22 @@ public class JwtUtils {
      * @return true se o token JWT for válido, false caso contrário
      */
     public static boolean isTokenValid(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(generateKey())
-                    .build().parseSignedClaims(refactorToken(token));
-            return true;
-        } catch (JwtException ex) {
-            log.error(String.format("Token inválido %s", ex.getMessage()));
+        return getClaimsFromToken(token) != null;
+    }
+
+    /**
+     * Cria os detalhes do usuário a partir das claims de um token JWT já verificado, sem acesso ao banco de dados.
+     *
+     * @param claims Claims do token JWT
+     * @return JwtUserDetails do usuário ou null se o token não tiver o ID e o papel (tokens emitidos por versões anteriores)
+     */
+    public static JwtUserDetails toUserDetails(Claims claims) {
+        Number id = claims.get(CLAIM_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (id == null || role == null) {
+            return null;
         }
-        return false;
+        return new JwtUserDetails(id.longValue(), claims.getSubject(), ROLE_PREFIX + role);
     }
 
     /**
@@ -121,7 +178,7 @@ public class JwtUtils {
      * @param token Token JWT
      * @return Token JWT refatorado
      */
-    private static String refactorToken(String token) {
+    public static String refactorToken(String token) {
         if (token.contains(JWT_BEARER)) {
             return token.substring(JWT_BEARER.length());
         }
@@ -2,19 +2,50 @@ package com.mballem.demoparkapi.repository;
 
 import com.mballem.demoparkapi.entity.Cliente;
 import com.mballem.demoparkapi.repository.projection.ClienteProjection;
+import com.mballem.demoparkapi.repository.projection.TotalEstacionamentosProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
 
-    @Query("select c from Cliente c")
+    @Query(value = "select new com.mballem.demoparkapi.repository.projection.ClienteProjection(c.id, c.nome, c.cpf) from Cliente c",
+            countQuery = "select count(c) from Cliente c")
     Page<ClienteProjection> findAllPageable(Pageable pageable);
 
+    // Paginação por keyset sobre (nome, id), atendida pelo índice de nome
+    @Query("select new com.mballem.demoparkapi.repository.projection.ClienteProjection(c.id, c.nome, c.cpf) " +
+            "from Cliente c order by c.nome, c.id")
+    List<ClienteProjection> findAllOrderByNome(Pageable pageable);
+
+    @Query("select new com.mballem.demoparkapi.repository.projection.ClienteProjection(c.id, c.nome, c.cpf) " +
+            "from Cliente c where c.nome > :nome or (c.nome = :nome and c.id > :id) order by c.nome, c.id")
+    List<ClienteProjection> findAllAposChave(String nome, Long id, Pageable pageable);
+
     Cliente findByUsuarioId(Long id);
 
     Optional<Cliente> findByCpf(String cpf);
+
+    List<Cliente> findAllByCpfIn(Collection<String> cpfs);
+
+    @Modifying
+    @Query("update Cliente c set c.totalEstacionamentos = c.totalEstacionamentos + :quantidade where c.id = :id")
+    int incrementarTotalEstacionamentos(Long id, long quantidade);
+
+    @Query("select c.totalEstacionamentos from Cliente c where c.id = :id")
+    long findTotalEstacionamentosById(Long id);
+
+    @Query("select c.cpf as cpf, c.totalEstacionamentos as total from Cliente c where c.id in :ids")
+    List<TotalEstacionamentosProjection> findTotalEstacionamentosByIdIn(Collection<Long> ids);
+
+    @Modifying
+    @Query("update Cliente c set c.totalEstacionamentos = " +
+            "(select count(cv) from ClienteVaga cv where cv.cliente.id = c.id and cv.dataSaida is not null)")
+    int recalcularTotalEstacionamentos();
 }
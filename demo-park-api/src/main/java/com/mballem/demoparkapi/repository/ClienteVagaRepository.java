@@ -2,18 +2,80 @@ package com.mballem.demoparkapi.repository;
 
 import com.mballem.demoparkapi.entity.ClienteVaga;
 import com.mballem.demoparkapi.repository.projection.ClienteVagaProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ClienteVagaRepository extends JpaRepository<ClienteVaga, Long>, ClienteVagaRepositoryCustom {
+
+    // Expressão de construtor de ClienteVagaProjection: somente as colunas da projeção, sem entidades gerenciadas nem proxies
+    String SELECT_PROJECTION = "select new com.mballem.demoparkapi.repository.projection.ClienteVagaProjection(" +
+            "cv.id, cv.placa, cv.marca, cv.modelo, cv.cor, c.cpf, cv.recibo, cv.dataEntrada, cv.dataSaida, " +
+            "v.codigo, cv.valor, cv.desconto) " +
+            "from ClienteVaga cv join cv.cliente c join cv.vaga v ";
+
+    // Registros posteriores à chave (dataEntrada, id) do último registro da página anterior
+    String APOS_CHAVE = "(cv.dataEntrada > :dataEntrada or (cv.dataEntrada = :dataEntrada and cv.id > :id)) ";
 
-public interface ClienteVagaRepository extends JpaRepository<ClienteVaga, Long> {
     Optional<ClienteVaga> findByReciboAndDataSaidaIsNull(String recibo);
 
-    long countByClienteCpfAndDataSaidaIsNotNull(String cpf);
+    @Query("select cv from ClienteVaga cv join fetch cv.cliente join fetch cv.vaga " +
+            "where cv.recibo in :recibos and cv.dataSaida is null")
+    List<ClienteVaga> findAllByReciboInAndDataSaidaIsNull(Collection<String> recibos);
+
+    @Query("select cv from ClienteVaga cv join fetch cv.cliente join fetch cv.vaga " +
+            "where cv.vaga.id = :vagaId and cv.dataSaida is null")
+    List<ClienteVaga> findAllByVagaIdAndDataSaidaIsNull(Long vagaId);
 
+    boolean existsByVagaIdAndDataSaidaIsNullAndIdNot(Long vagaId, Long id);
+
+    @Query("select cv.recibo from ClienteVaga cv where cv.recibo in :recibos")
+    List<String> findRecibosByReciboIn(Collection<String> recibos);
+
+    @Query("select cv from ClienteVaga cv join fetch cv.cliente join fetch cv.vaga " +
+            "where cv.dataSaida is null order by cv.dataEntrada desc")
+    List<ClienteVaga> findAllByDataSaidaIsNull(Pageable pageable);
+
+    @Query(value = SELECT_PROJECTION + "where c.cpf = :cpf",
+            countQuery = "select count(cv) from ClienteVaga cv where cv.cliente.cpf = :cpf")
     Page<ClienteVagaProjection> findAllByClienteCpf(String cpf, Pageable pageable);
 
+    @Query(value = SELECT_PROJECTION + "where c.usuario.id = :id",
+            countQuery = "select count(cv) from ClienteVaga cv where cv.cliente.usuario.id = :id")
     Page<ClienteVagaProjection> findAllByClienteUsuarioId(Long id, Pageable pageable);
+
+    // Paginação por keyset sobre (dataEntrada, id), atendida pelo índice (id_cliente, data_entrada)
+    @Query(SELECT_PROJECTION + "where c.cpf = :cpf order by cv.dataEntrada, cv.id")
+    List<ClienteVagaProjection> findAllByClienteCpfOrderByDataEntrada(String cpf, Pageable pageable);
+
+    @Query(SELECT_PROJECTION + "where c.cpf = :cpf and " + APOS_CHAVE + "order by cv.dataEntrada, cv.id")
+    List<ClienteVagaProjection> findAllByClienteCpfAposChave(String cpf, LocalDateTime dataEntrada, Long id, Pageable pageable);
+
+    @Query(SELECT_PROJECTION + "where c.usuario.id = :usuarioId order by cv.dataEntrada, cv.id")
+    List<ClienteVagaProjection> findAllByClienteUsuarioIdOrderByDataEntrada(Long usuarioId, Pageable pageable);
+
+    @Query(SELECT_PROJECTION + "where c.usuario.id = :usuarioId and " + APOS_CHAVE + "order by cv.dataEntrada, cv.id")
+    List<ClienteVagaProjection> findAllByClienteUsuarioIdAposChave(Long usuarioId, LocalDateTime dataEntrada, Long id, Pageable pageable);
+
+    long countByClienteCpf(String cpf);
+
+    long countByClienteUsuarioId(Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_PROJECTION + "where c.cpf = :cpf order by cv.dataEntrada, cv.id")
+    Stream<ClienteVagaProjection> streamAllByClienteCpf(String cpf);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_PROJECTION + "where cv.dataEntrada >= :inicio and cv.dataEntrada < :fim order by cv.dataEntrada, cv.id")
+    Stream<ClienteVagaProjection> streamAllByDataEntradaPeriodo(LocalDateTime inicio, LocalDateTime fim);
 }
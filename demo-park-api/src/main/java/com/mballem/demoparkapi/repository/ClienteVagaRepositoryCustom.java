@@ -0,0 +1,10 @@
+package com.mballem.demoparkapi.repository;
+
+import com.mballem.demoparkapi.entity.ClienteVaga;
+
+import java.util.List;
+
+public interface ClienteVagaRepositoryCustom {
+
+    void inserirEmLote(List<ClienteVaga> registros);
+}
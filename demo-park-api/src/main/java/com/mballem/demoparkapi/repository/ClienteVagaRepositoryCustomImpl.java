@@ -0,0 +1,62 @@
+package com.mballem.demoparkapi.repository;
+
+import com.mballem.demoparkapi.entity.ClienteVaga;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Implementação das operações em lote de ClienteVaga com JDBC.
+ * A chave IDENTITY impede o Hibernate de agrupar inserts, por isso os registros são inseridos
+ * com JdbcTemplate.batchUpdate, preenchendo manualmente os campos de auditoria.
+ */
+@RequiredArgsConstructor
+public class ClienteVagaRepositoryCustomImpl implements ClienteVagaRepositoryCustom {
+
+    private static final int TAMANHO_DO_LOTE = 50;
+
+    private static final String INSERT = "insert into clientes_tem_vagas " +
+            "(numero_recibo, placa, marca, modelo, cor, data_entrada, id_cliente, id_vaga, " +
+            "data_criacao, data_modificacao, criado_por, modificado_por, vaga_informada, conflito_vaga) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<String> auditorAware;
+
+    @Override
+    public void inserirEmLote(List<ClienteVaga> registros) {
+        LocalDateTime agora = LocalDateTime.now();
+        String usuario = auditorAware.getCurrentAuditor().orElse(null);
+        for (ClienteVaga registro : registros) {
+            if (registro.getDataCriacao() == null) {
+                registro.setDataCriacao(agora);
+                registro.setDataModificacao(agora);
+            }
+            if (registro.getCriadoPor() == null) {
+                registro.setCriadoPor(usuario);
+                registro.setModificadoPor(usuario);
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT, registros, TAMANHO_DO_LOTE, (ps, registro) -> {
+            ps.setString(1, registro.getRecibo());
+            ps.setString(2, registro.getPlaca());
+            ps.setString(3, registro.getMarca());
+            ps.setString(4, registro.getModelo());
+            ps.setString(5, registro.getCor());
+            ps.setTimestamp(6, Timestamp.valueOf(registro.getDataEntrada()));
+            ps.setLong(7, registro.getCliente().getId());
+            ps.setLong(8, registro.getVaga().getId());
+            ps.setTimestamp(9, Timestamp.valueOf(registro.getDataCriacao()));
+            ps.setTimestamp(10, Timestamp.valueOf(registro.getDataModificacao()));
+            ps.setString(11, registro.getCriadoPor());
+            ps.setString(12, registro.getModificadoPor());
+            ps.setString(13, registro.getVagaInformada());
+            ps.setObject(14, registro.getConflitoVaga(), Types.BOOLEAN);
+        });
+    }
+}
@@ -0,0 +1,7 @@
+package com.mballem.demoparkapi.repository;
+
+import com.mballem.demoparkapi.entity.MigracaoDados;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface MigracaoDadosRepository extends JpaRepository<MigracaoDados, String> {
+}
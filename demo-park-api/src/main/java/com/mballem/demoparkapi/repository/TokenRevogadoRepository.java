@@ -0,0 +1,27 @@
+package com.mballem.demoparkapi.repository;
+
+import com.mballem.demoparkapi.entity.TokenRevogado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TokenRevogadoRepository extends JpaRepository<TokenRevogado, String> {
+
+    // Insere sem consulta prévia; a chave primária garante que um jti seja revogado uma única vez
+    @Transactional
+    @Modifying
+    @Query(value = "insert into tokens_revogados (jti, expira_em) values (:jti, :expiraEm)", nativeQuery = true)
+    int inserir(String jti, LocalDateTime expiraEm);
+
+    @Query("select t.jti from TokenRevogado t where t.expiraEm > :data")
+    List<String> findJtiByExpiraEmAfter(LocalDateTime data);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TokenRevogado t where t.expiraEm < :data")
+    int deleteByExpiraEmBefore(LocalDateTime data);
+}
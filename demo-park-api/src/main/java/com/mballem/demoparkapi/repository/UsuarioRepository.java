@@ -1,15 +1,30 @@
 package com.mballem.demoparkapi.repository;
 
 import com.mballem.demoparkapi.entity.Usuario;
+import com.mballem.demoparkapi.repository.projection.UsuarioProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
     Optional<Usuario> findByUsername(String username);
 
-    @Query("select u.role from Usuario u where u.username like :username")
-    Usuario.Role findRoleByUsername(String username);
-}
\ No newline at end of file
+    // Paginação por keyset: a busca parte do último id da página anterior pela chave primária, sem OFFSET nem COUNT
+    List<Usuario> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Projeção não gerenciada lida de um cursor do banco, em blocos do tamanho do fetch size
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u.id as id, u.username as username, u.role as role from Usuario u order by u.id")
+    Stream<UsuarioProjection> streamAll();
+}
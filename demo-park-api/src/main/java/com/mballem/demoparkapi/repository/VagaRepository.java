@@ -1,12 +1,34 @@
 package com.mballem.demoparkapi.repository;
 
 import com.mballem.demoparkapi.entity.Vaga;
+import com.mballem.demoparkapi.repository.projection.ContagemStatusProjection;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface VagaRepository extends JpaRepository<Vaga, Long> {
     Optional<Vaga> findByCodigo(String codigo);
 
     Optional<Vaga> findFirstByStatus(Vaga.StatusVaga statusVaga);
+
+    @Query("select v.id from Vaga v where v.status = :status")
+    List<Long> findIdsByStatus(Vaga.StatusVaga status);
+
+    // Paginação por keyset sobre o ID, no intervalo (aposId, ateId]
+    @Query("select v.id from Vaga v where v.status = :status and v.id > :aposId and v.id <= :ateId order by v.id")
+    List<Long> findIdsByStatusEntre(Vaga.StatusVaga status, Long aposId, Long ateId, Pageable pageable);
+
+    @Query("select max(v.id) from Vaga v")
+    Long findMaxId();
+
+    @Query("select v.status as status, count(v) as total from Vaga v group by v.status")
+    List<ContagemStatusProjection> countGroupByStatus();
+
+    @Modifying
+    @Query("update Vaga v set v.status = :novoStatus where v.id = :id and v.status = :statusAtual")
+    int updateStatusByIdAndStatus(Long id, Vaga.StatusVaga statusAtual, Vaga.StatusVaga novoStatus);
 }
@@ -1,8 +1,7 @@
 package com.mballem.demoparkapi.repository.projection;
 
-public interface ClienteProjection {
-
-    Long getId();
-    String getNome();
-    String getCpf();
+/**
+ * Projeção de um cliente, criada pela expressão de construtor da consulta JPQL.
+ */
+public record ClienteProjection(Long id, String nome, String cpf) {
 }
@@ -1,24 +1,30 @@
 package com.mballem.demoparkapi.repository.projection;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+/**
+ * Projeção de um registro de cliente em vaga, criada pela expressão de construtor da consulta JPQL.
+ */
 @JsonInclude(JsonInclude.Include.NON_NULL)
-public interface ClienteVagaProjection {
-    String getPlaca();
-    String getMarca();
-    String getModelo();
-    String getCor();
-    String getClienteCpf();
-    String getRecibo();
-    @JsonFormat(pattern = "yyyy-MM-dd hh:mm:ss")
-    LocalDateTime getDataEntrada();
-    @JsonFormat(pattern = "yyyy-MM-dd hh:mm:ss")
-    LocalDateTime getDataSaida();
-    String getVagaCodigo();
-    BigDecimal getValor();
-    BigDecimal getDesconto();
+public record ClienteVagaProjection(
+        @JsonIgnore // Usado somente no cursor da paginação por keyset
+        Long id,
+        String placa,
+        String marca,
+        String modelo,
+        String cor,
+        String clienteCpf,
+        String recibo,
+        @JsonFormat(pattern = "yyyy-MM-dd hh:mm:ss")
+        LocalDateTime dataEntrada,
+        @JsonFormat(pattern = "yyyy-MM-dd hh:mm:ss")
+        LocalDateTime dataSaida,
+        String vagaCodigo,
+        BigDecimal valor,
+        BigDecimal desconto) {
 }
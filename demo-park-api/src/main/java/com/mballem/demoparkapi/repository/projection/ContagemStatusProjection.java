@@ -0,0 +1,9 @@
+package com.mballem.demoparkapi.repository.projection;
+
+import com.mballem.demoparkapi.entity.Vaga;
+
+public interface ContagemStatusProjection {
+
+    Vaga.StatusVaga getStatus();
+    Long getTotal();
+}
@@ -0,0 +1,7 @@
+package com.mballem.demoparkapi.repository.projection;
+
+public interface TotalEstacionamentosProjection {
+
+    String getCpf();
+    Long getTotal();
+}
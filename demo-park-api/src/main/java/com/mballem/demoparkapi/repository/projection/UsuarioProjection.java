@@ -0,0 +1,10 @@
+package com.mballem.demoparkapi.repository.projection;
+
+import com.mballem.demoparkapi.entity.Usuario;
+
+public interface UsuarioProjection {
+
+    Long getId();
+    String getUsername();
+    Usuario.Role getRole();
+}
@@ -0,0 +1,173 @@
+package com.mballem.demoparkapi.service;
+
+import com.mballem.demoparkapi.exception.AutenticacaoSobrecarregadaException;
+import com.mballem.demoparkapi.exception.EntityNotFoundException;
+import com.mballem.demoparkapi.exception.InvalidCredencialException;
+import com.mballem.demoparkapi.exception.TokenRefreshInvalidoException;
+import com.mballem.demoparkapi.jwt.JwtToken;
+import com.mballem.demoparkapi.jwt.JwtTokenCache;
+import com.mballem.demoparkapi.jwt.JwtUserDetails;
+import com.mballem.demoparkapi.jwt.JwtUserDetailsService;
+import com.mballem.demoparkapi.jwt.JwtUtils;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serviço de autenticação por username e senha.
+ * A verificação da senha (BCrypt) é executada em um pool de threads dedicado e limitado, com uma fila de
+ * tamanho fixo, para que picos de login não ocupem as threads do servidor usadas pelas demais requisições.
+ * Quando o pool e a fila estão cheios, a autenticação é recusada imediatamente.
+ * A renovação de um token dispensa a senha: verifica somente a assinatura do token e se ele ainda não foi renovado
+ * ou revogado.
+ */
+@Slf4j
+@Service
+public class AutenticacaoService {
+
+    private final AuthenticationManager authenticationManager;
+    private final JwtUserDetailsService detailsService;
+    private final TokenRevogadoService tokenRevogadoService;
+    private final JwtTokenCache tokenCache;
+    private final ThreadPoolExecutor executor;
+    private final int retryAfter;
+    private final long toleranciaRenovacao;
+
+    private final LongAdder recusadas = new LongAdder();
+
+    /**
+     * @param threads             Quantidade de threads dedicadas à verificação de senhas
+     * @param fila                Quantidade máxima de autenticações aguardando uma thread livre
+     * @param retryAfter          Tempo (s) sugerido ao cliente antes de uma nova tentativa quando a autenticação é recusada
+     * @param toleranciaRenovacao Tempo (ms) após a expiração em que um token ainda pode ser renovado
+     */
+    public AutenticacaoService(AuthenticationManager authenticationManager,
+                               JwtUserDetailsService detailsService,
+                               TokenRevogadoService tokenRevogadoService,
+                               JwtTokenCache tokenCache,
+                               @Value("${demo-park.auth.threads:4}") int threads,
+                               @Value("${demo-park.auth.fila:50}") int fila,
+                               @Value("${demo-park.auth.retry-after:1}") int retryAfter,
+                               @Value("${demo-park.jwt.refresh.tolerancia:43200000}") long toleranciaRenovacao) {
+        this.authenticationManager = authenticationManager;
+        this.detailsService = detailsService;
+        this.tokenRevogadoService = tokenRevogadoService;
+        this.tokenCache = tokenCache;
+        this.retryAfter = retryAfter;
+        this.toleranciaRenovacao = toleranciaRenovacao;
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fila),
+                tarefa -> new Thread(tarefa, "autenticacao-" + contador.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Autentica um usuário e gera o seu token JWT no pool de autenticação.
+     *
+     * @param username Username do usuário
+     * @param password Senha do usuário
+     * @return CompletableFuture com o token JWT, concluído com InvalidCredencialException se as credenciais forem inválidas
+     * @throws AutenticacaoSobrecarregadaException se o pool de autenticação e a sua fila estiverem cheios
+     */
+    public CompletableFuture<JwtToken> autenticar(String username, String password) {
+        try {
+            return CompletableFuture.supplyAsync(() -> gerarToken(username, password), executor);
+        } catch (RejectedExecutionException ex) {
+            recusadas.increment();
+            log.warn("Autenticação do usuário '{}' recusada, pool de autenticação saturado", username);
+            throw new AutenticacaoSobrecarregadaException(retryAfter);
+        }
+    }
+
+    /**
+     * Troca um token válido, ou expirado há menos tempo que a tolerância, por um novo token, sem verificar a senha.
+     * O token apresentado é revogado, de modo que cada token pode ser renovado uma única vez.
+     *
+     * @param token Token JWT a ser renovado
+     * @return Novo token JWT
+     * @throws TokenRefreshInvalidoException se o token for inválido, tiver expirado além da tolerância, ou já tiver sido renovado ou revogado
+     */
+    public JwtToken renovar(String token) {
+        Claims claims = (token == null || token.isBlank()) ? null
+                : JwtUtils.getClaimsFromRefreshableToken(token, toleranciaRenovacao);
+        if (claims == null || claims.getId() == null) { // Tokens emitidos sem jti não podem ser renovados
+            throw new TokenRefreshInvalidoException();
+        }
+        if (!revogar(token, claims)) {
+            log.warn("Token {} do usuário '{}' já foi renovado ou revogado", claims.getId(), claims.getSubject());
+            throw new TokenRefreshInvalidoException();
+        }
+        try {
+            // Recarrega o usuário (em cache) para que o novo token reflita o papel atual
+            JwtUserDetails userDetails = (JwtUserDetails) detailsService.loadUserByUsername(claims.getSubject());
+            return detailsService.getTokenAuthenticated(userDetails);
+        } catch (EntityNotFoundException ex) {
+            throw new TokenRefreshInvalidoException();
+        }
+    }
+
+    /**
+     * Revoga um token válido (logout), que deixa de ser aceito nas requisições e não pode mais ser renovado.
+     *
+     * @param token Token JWT a ser revogado
+     */
+    public void revogar(String token) {
+        Claims claims = JwtUtils.getClaimsFromToken(token);
+        if (claims != null && claims.getId() != null) {
+            revogar(token, claims);
+        }
+    }
+
+    public int getAtivas() {
+        return executor.getActiveCount();
+    }
+
+    public int getFila() {
+        return executor.getQueue().size();
+    }
+
+    public long getRecusadas() {
+        return recusadas.sum();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+
+    private boolean revogar(String token, Claims claims) {
+        // Mantém a revogação até o fim do prazo de renovação, para que o token também não possa ser renovado
+        Date expiraEm = new Date(claims.getExpiration().getTime() + toleranciaRenovacao);
+        boolean revogado = tokenRevogadoService.revogar(claims.getId(), expiraEm);
+        tokenCache.remover(JwtUtils.refactorToken(token));
+        return revogado;
+    }
+
+    private JwtToken gerarToken(String username, String password) {
+        try {
+            // O principal autenticado já contém o ID e o papel do usuário, carregados em uma única consulta
+            Authentication authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(username, password));
+            return detailsService.getTokenAuthenticated((JwtUserDetails) authentication.getPrincipal());
+        } catch (AuthenticationException ex) {
+            log.warn("Bad Credentials from username '{}'", username);
+            throw new InvalidCredencialException(username);
+        }
+    }
+}
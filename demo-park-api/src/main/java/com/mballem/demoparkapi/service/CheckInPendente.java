@@ -0,0 +1,75 @@
+package com.mballem.demoparkapi.service;
+
+import com.mballem.demoparkapi.entity.Cliente;
+import com.mballem.demoparkapi.entity.ClienteVaga;
+import com.mballem.demoparkapi.entity.Vaga;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Check-in já respondido ao cliente e registrado no diário, mas ainda não gravado no banco de dados.
+ */
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class CheckInPendente {
+
+    private String recibo;
+    private String placa;
+    private String marca;
+    private String modelo;
+    private String cor;
+    private Long clienteId;
+    private String clienteCpf;
+    private Long vagaId;
+    private String vagaCodigo;
+    private LocalDateTime dataEntrada;
+    private String criadoPor;
+
+    public static CheckInPendente of(ClienteVaga clienteVaga, String criadoPor) {
+        return new CheckInPendente(
+                clienteVaga.getRecibo(),
+                clienteVaga.getPlaca(),
+                clienteVaga.getMarca(),
+                clienteVaga.getModelo(),
+                clienteVaga.getCor(),
+                clienteVaga.getCliente().getId(),
+                clienteVaga.getCliente().getCpf(),
+                clienteVaga.getVaga().getId(),
+                clienteVaga.getVaga().getCodigo(),
+                clienteVaga.getDataEntrada(),
+                criadoPor
+        );
+    }
+
+    /**
+     * Monta o registro de cliente em vaga a ser inserido, referenciando cliente e vaga apenas pelo ID.
+     *
+     * @return Registro de cliente em vaga com os campos de auditoria do momento do check-in
+     */
+    public ClienteVaga toClienteVaga() {
+        Cliente cliente = new Cliente();
+        cliente.setId(clienteId);
+        cliente.setCpf(clienteCpf);
+        Vaga vaga = new Vaga();
+        vaga.setId(vagaId);
+        vaga.setCodigo(vagaCodigo);
+
+        ClienteVaga clienteVaga = new ClienteVaga();
+        clienteVaga.setRecibo(recibo);
+        clienteVaga.setPlaca(placa);
+        clienteVaga.setMarca(marca);
+        clienteVaga.setModelo(modelo);
+        clienteVaga.setCor(cor);
+        clienteVaga.setCliente(cliente);
+        clienteVaga.setVaga(vaga);
+        clienteVaga.setDataEntrada(dataEntrada);
+        clienteVaga.setDataCriacao(dataEntrada);
+        clienteVaga.setDataModificacao(dataEntrada);
+        clienteVaga.setCriadoPor(criadoPor);
+        clienteVaga.setModificadoPor(criadoPor);
+        return clienteVaga;
+    }
+}
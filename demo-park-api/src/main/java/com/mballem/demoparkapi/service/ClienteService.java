@@ -5,13 +5,23 @@ import com.mballem.demoparkapi.exception.CpfUniqueViolationException;
 import com.mballem.demoparkapi.exception.EntityNotFoundException;
 import com.mballem.demoparkapi.repository.ClienteRepository;
 import com.mballem.demoparkapi.repository.projection.ClienteProjection;
+import com.mballem.demoparkapi.repository.projection.TotalEstacionamentosProjection;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @RequiredArgsConstructor
 @Service
 public class ClienteService {
@@ -59,6 +69,33 @@ public class ClienteService {
         return clienteRepository.findAllPageable(pageable); // Busca todos os clientes utilizando paginação
     }
 
+    /**
+     * Busca uma página de clientes em ordem de nome, a partir da chave (nome, id) do último cliente da página
+     * anterior, sem OFFSET.
+     *
+     * @param aposNome   Nome do último cliente da página anterior ou null para a primeira página
+     * @param aposId     ID do último cliente da página anterior ou null para a primeira página
+     * @param quantidade Quantidade máxima de clientes da página
+     * @return Lista de clientes encontrados
+     */
+    @Transactional(readOnly = true)
+    public List<ClienteProjection> buscarTodos(String aposNome, Long aposId, int quantidade) {
+        PageRequest limite = PageRequest.ofSize(quantidade);
+        return aposId == null
+                ? clienteRepository.findAllOrderByNome(limite)
+                : clienteRepository.findAllAposChave(aposNome, aposId, limite);
+    }
+
+    /**
+     * Conta os clientes cadastrados.
+     *
+     * @return Quantidade de clientes
+     */
+    @Transactional(readOnly = true)
+    public long contarTodos() {
+        return clienteRepository.count();
+    }
+
     /**
      * Busca um cliente pelo ID do usuário associado.
      *
@@ -83,4 +120,63 @@ public class ClienteService {
                 () -> new EntityNotFoundException("Cliente", cpf)
         );
     }
+
+    /**
+     * Busca clientes por uma coleção de CPFs em uma única consulta.
+     *
+     * @param cpfs CPFs dos clientes a serem buscados
+     * @return Mapa de clientes encontrados indexados pelo CPF
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Cliente> buscarPorCpfs(Collection<String> cpfs) {
+        return clienteRepository.findAllByCpfIn(cpfs).stream()
+                .collect(Collectors.toMap(Cliente::getCpf, Function.identity())); // Indexa os clientes pelo CPF
+    }
+
+    /**
+     * Registra um estacionamento completo do cliente, incrementando o seu total de forma atômica no banco.
+     *
+     * @param cliente Cliente que realizou o check-out
+     * @return Total de estacionamentos completos do cliente antes deste check-out
+     */
+    @Transactional
+    public long registrarEstacionamentoCompleto(Cliente cliente) {
+        clienteRepository.incrementarTotalEstacionamentos(cliente.getId(), 1); // Bloqueia a linha do cliente até o fim da transação
+        return clienteRepository.findTotalEstacionamentosById(cliente.getId()) - 1;
+    }
+
+    /**
+     * Registra os estacionamentos completos de vários clientes, incrementando o total de cada cliente
+     * uma única vez pela quantidade de check-outs do cliente no lote.
+     *
+     * @param clientes Clientes que realizaram check-out, repetidos uma vez por check-out
+     * @return Mapa com o total de estacionamentos completos de cada CPF antes dos check-outs do lote
+     */
+    @Transactional
+    public Map<String, Long> registrarEstacionamentosCompletos(Collection<Cliente> clientes) {
+        Map<Long, Long> quantidades = new TreeMap<>(); // Ordenado pelo ID para bloquear as linhas sempre na mesma ordem
+        Map<Long, String> cpfs = new HashMap<>();
+        for (Cliente cliente : clientes) {
+            quantidades.merge(cliente.getId(), 1L, Long::sum);
+            cpfs.put(cliente.getId(), cliente.getCpf());
+        }
+        quantidades.forEach(clienteRepository::incrementarTotalEstacionamentos);
+
+        Map<String, Long> quantidadesPorCpf = new HashMap<>();
+        quantidades.forEach((id, quantidade) -> quantidadesPorCpf.put(cpfs.get(id), quantidade));
+        return clienteRepository.findTotalEstacionamentosByIdIn(quantidades.keySet()).stream()
+                .collect(Collectors.toMap(TotalEstacionamentosProjection::getCpf,
+                        total -> total.getTotal() - quantidadesPorCpf.get(total.getCpf())));
+    }
+
+    /**
+     * Recalcula o total de estacionamentos completos de todos os clientes a partir do histórico.
+     * Executado uma única vez pela {@link MigracaoDadosService} para inicializar o contador.
+     *
+     * @return Quantidade de clientes atualizados
+     */
+    @Transactional
+    public int recalcularTotaisDeEstacionamentos() {
+        return clienteRepository.recalcularTotalEstacionamentos();
+    }
 }
@@ -6,15 +6,27 @@ import com.mballem.demoparkapi.repository.ClienteVagaRepository;
 import com.mballem.demoparkapi.repository.projection.ClienteVagaProjection;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 @RequiredArgsConstructor
 @Service
 public class ClienteVagaService {
 
     private final ClienteVagaRepository repository;
+    private final TicketAbertoCache ticketAbertoCache;
+    private final EscritorCheckIn escritorCheckIn;
 
     /**
      * Salva um registro de cliente em vaga no banco de dados.
@@ -27,6 +39,16 @@ public class ClienteVagaService {
         return repository.save(clienteVaga); // Salva o registro de cliente em vaga
     }
 
+    /**
+     * Salva vários registros de cliente em vaga com inserts agrupados em lote JDBC.
+     *
+     * @param registros Registros de cliente em vaga a serem salvos
+     */
+    @Transactional
+    public void salvarEmLote(List<ClienteVaga> registros) {
+        repository.inserirEmLote(registros); // Insere os registros em lote
+    }
+
     /**
      * Busca um registro de cliente em vaga pelo recibo de check-in.
      *
@@ -42,14 +64,48 @@ public class ClienteVagaService {
     }
 
     /**
-     * Obtém o total de vezes que um cliente completou o estacionamento.
+     * Busca um ticket em aberto pelo recibo de check-in, primeiro no cache, depois entre os check-ins
+     * ainda não gravados e por fim no banco de dados.
+     * Sem transação, para que as consultas atendidas pelo cache não obtenham conexão com o banco.
      *
-     * @param cpf CPF do cliente
-     * @return Total de vezes que o cliente completou o estacionamento
+     * @param recibo Recibo de check-in a ser buscado
+     * @return Ticket em aberto encontrado
+     * @throws ReciboCheckInNotFoundException Exceção lançada se o recibo não for encontrado
+     */
+    public TicketAberto buscarTicketAbertoPorRecibo(String recibo) {
+        TicketAberto ticket = ticketAbertoCache.buscar(recibo);
+        if (ticket != null) {
+            return ticket;
+        }
+        CheckInPendente pendente = escritorCheckIn.buscarPendente(recibo); // Check-in ainda não gravado no banco
+        if (pendente != null) {
+            return TicketAberto.of(pendente);
+        }
+        return TicketAberto.of(buscarPorRecibo(recibo)); // Consulta o banco quando o recibo não está no cache
+    }
+
+    /**
+     * Busca em uma única consulta os registros em aberto (sem check-out) de vários recibos,
+     * já com o cliente e a vaga carregados.
+     *
+     * @param recibos Recibos de check-in a serem buscados
+     * @return Mapa de registros em aberto indexados pelo recibo; recibos inexistentes ficam fora do mapa
      */
     @Transactional(readOnly = true)
-    public long getTotalDeVezesEstacionamentoCompleto(String cpf) {
-        return repository.countByClienteCpfAndDataSaidaIsNotNull(cpf); // Conta registros completos de estacionamento
+    public Map<String, ClienteVaga> buscarPorRecibos(Collection<String> recibos) {
+        return repository.findAllByReciboInAndDataSaidaIsNull(recibos).stream()
+                .collect(Collectors.toMap(ClienteVaga::getRecibo, clienteVaga -> clienteVaga)); // Indexa os registros pelo recibo
+    }
+
+    /**
+     * Verifica se outro registro em aberto ocupa a mesma vaga de um registro de cliente em vaga.
+     *
+     * @param clienteVaga Registro de cliente em vaga
+     * @return true se outro registro sem check-out estiver na mesma vaga
+     */
+    @Transactional(readOnly = true)
+    public boolean existeOutroEmAbertoNaVaga(ClienteVaga clienteVaga) {
+        return repository.existsByVagaIdAndDataSaidaIsNullAndIdNot(clienteVaga.getVaga().getId(), clienteVaga.getId());
     }
 
     /**
@@ -75,4 +131,91 @@ public class ClienteVagaService {
     public Page<ClienteVagaProjection> buscarTodosPorUsuarioId(Long id, Pageable pageable) {
         return repository.findAllByClienteUsuarioId(id, pageable); // Busca registros por ID do usuário
     }
+
+    /**
+     * Busca uma página de registros de cliente em vaga por CPF do cliente, em ordem de entrada, a partir da chave
+     * (dataEntrada, id) do último registro da página anterior, sem OFFSET.
+     *
+     * @param cpf             CPF do cliente
+     * @param aposDataEntrada Data de entrada do último registro da página anterior ou null para a primeira página
+     * @param aposId          ID do último registro da página anterior ou null para a primeira página
+     * @param quantidade      Quantidade máxima de registros da página
+     * @return Lista de registros encontrados
+     */
+    @Transactional(readOnly = true)
+    public List<ClienteVagaProjection> buscarTodosPorClienteCpf(String cpf, LocalDateTime aposDataEntrada, Long aposId, int quantidade) {
+        PageRequest limite = PageRequest.ofSize(quantidade);
+        return aposId == null
+                ? repository.findAllByClienteCpfOrderByDataEntrada(cpf, limite)
+                : repository.findAllByClienteCpfAposChave(cpf, aposDataEntrada, aposId, limite);
+    }
+
+    /**
+     * Busca uma página de registros de cliente em vaga por ID do usuário, em ordem de entrada, a partir da chave
+     * (dataEntrada, id) do último registro da página anterior, sem OFFSET.
+     *
+     * @param id              ID do usuário associado ao cliente
+     * @param aposDataEntrada Data de entrada do último registro da página anterior ou null para a primeira página
+     * @param aposId          ID do último registro da página anterior ou null para a primeira página
+     * @param quantidade      Quantidade máxima de registros da página
+     * @return Lista de registros encontrados
+     */
+    @Transactional(readOnly = true)
+    public List<ClienteVagaProjection> buscarTodosPorUsuarioId(Long id, LocalDateTime aposDataEntrada, Long aposId, int quantidade) {
+        PageRequest limite = PageRequest.ofSize(quantidade);
+        return aposId == null
+                ? repository.findAllByClienteUsuarioIdOrderByDataEntrada(id, limite)
+                : repository.findAllByClienteUsuarioIdAposChave(id, aposDataEntrada, aposId, limite);
+    }
+
+    /**
+     * Conta os registros de cliente em vaga de um CPF.
+     *
+     * @param cpf CPF do cliente
+     * @return Quantidade de registros
+     */
+    @Transactional(readOnly = true)
+    public long contarPorClienteCpf(String cpf) {
+        return repository.countByClienteCpf(cpf);
+    }
+
+    /**
+     * Conta os registros de cliente em vaga do cliente associado a um usuário.
+     *
+     * @param id ID do usuário associado ao cliente
+     * @return Quantidade de registros
+     */
+    @Transactional(readOnly = true)
+    public long contarPorUsuarioId(Long id) {
+        return repository.countByClienteUsuarioId(id);
+    }
+
+    /**
+     * Percorre todos os registros de cliente em vaga de um CPF, em ordem de entrada, à medida que são lidos do banco de dados.
+     *
+     * @param cpf        CPF do cliente
+     * @param consumidor Ação executada para cada registro lido, dentro da transação de leitura
+     */
+    @Transactional(readOnly = true)
+    public void percorrerTodosPorClienteCpf(String cpf, Consumer<ClienteVagaProjection> consumidor) {
+        try (Stream<ClienteVagaProjection> registros = repository.streamAllByClienteCpf(cpf)) {
+            registros.forEach(consumidor);
+        }
+    }
+
+    /**
+     * Percorre todos os registros de cliente em vaga com entrada no período, em ordem de entrada, à medida que são
+     * lidos do banco de dados.
+     *
+     * @param inicio     Primeiro dia do período
+     * @param fim        Último dia do período, inclusive
+     * @param consumidor Ação executada para cada registro lido, dentro da transação de leitura
+     */
+    @Transactional(readOnly = true)
+    public void percorrerTodosPorPeriodo(LocalDate inicio, LocalDate fim, Consumer<ClienteVagaProjection> consumidor) {
+        try (Stream<ClienteVagaProjection> registros = repository.streamAllByDataEntradaPeriodo(
+                inicio.atStartOfDay(), fim.plusDays(1).atStartOfDay())) {
+            registros.forEach(consumidor);
+        }
+    }
 }
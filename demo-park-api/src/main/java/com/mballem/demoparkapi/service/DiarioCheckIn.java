@@ -0,0 +1,131 @@
+package com.mballem.demoparkapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Diário local em disco dos check-ins ainda não gravados no banco de dados.
+ * Cada check-in é gravado como uma linha JSON e forçado para o disco antes da resposta ao cliente.
+ * O diário é dividido em segmentos: a cada lote gravado no banco o segmento atual é fechado
+ * e pode ser excluído assim que o lote for confirmado. Não é thread-safe: o acesso é sincronizado
+ * pelo {@link EscritorCheckIn}.
+ */
+@Slf4j
+class DiarioCheckIn implements Closeable {
+
+    private static final String PREFIXO = "checkin-";
+    private static final String SUFIXO = ".log";
+
+    private final Path diretorio;
+    private final ObjectMapper objectMapper;
+    private final List<Path> segmentosAnteriores;
+
+    private long proximoSegmento;
+    private FileChannel canal;
+
+    DiarioCheckIn(Path diretorio, ObjectMapper objectMapper) throws IOException {
+        this.diretorio = Files.createDirectories(diretorio);
+        this.objectMapper = objectMapper;
+        this.segmentosAnteriores = listarSegmentos();
+        this.proximoSegmento = segmentosAnteriores.isEmpty() ? 1 : numero(segmentosAnteriores.get(segmentosAnteriores.size() - 1)) + 1;
+        abrirSegmento();
+    }
+
+    /**
+     * @return Segmentos existentes antes da abertura do diário, em ordem de criação
+     */
+    List<Path> getSegmentosAnteriores() {
+        return segmentosAnteriores;
+    }
+
+    /**
+     * Grava um check-in no segmento atual e força a gravação no disco.
+     */
+    void registrar(CheckInPendente checkIn) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(checkIn);
+        ByteBuffer buffer = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        canal.force(false);
+    }
+
+    /**
+     * Fecha o segmento atual e abre um novo.
+     *
+     * @return Segmento fechado
+     */
+    Path rotacionar() throws IOException {
+        Path fechado = segmento(proximoSegmento - 1);
+        canal.close();
+        abrirSegmento();
+        return fechado;
+    }
+
+    /**
+     * Lê os check-ins de um segmento. Uma última linha incompleta, gravada durante uma queda, é ignorada.
+     */
+    List<CheckInPendente> ler(Path segmento) throws IOException {
+        List<CheckInPendente> checkIns = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(segmento, StandardCharsets.UTF_8)) {
+            String linha;
+            while ((linha = reader.readLine()) != null) {
+                if (linha.isBlank()) {
+                    continue;
+                }
+                try {
+                    checkIns.add(objectMapper.readValue(linha, CheckInPendente.class));
+                } catch (IOException ex) {
+                    log.warn("Linha inválida ignorada no diário {}: {}", segmento, linha);
+                }
+            }
+        }
+        return checkIns;
+    }
+
+    void excluir(Path segmento) throws IOException {
+        Files.deleteIfExists(segmento);
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    private void abrirSegmento() throws IOException {
+        canal = FileChannel.open(segmento(proximoSegmento++),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path segmento(long numero) {
+        return diretorio.resolve(String.format("%s%019d%s", PREFIXO, numero, SUFIXO));
+    }
+
+    private List<Path> listarSegmentos() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos
+                    .filter(arquivo -> arquivo.getFileName().toString().startsWith(PREFIXO))
+                    .filter(arquivo -> arquivo.getFileName().toString().endsWith(SUFIXO))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long numero(Path segmento) {
+        String nome = segmento.getFileName().toString();
+        return Long.parseLong(nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length()));
+    }
+}
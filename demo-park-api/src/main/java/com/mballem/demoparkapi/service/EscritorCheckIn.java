@@ -0,0 +1,296 @@
+package com.mballem.demoparkapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mballem.demoparkapi.entity.ClienteVaga;
+import com.mballem.demoparkapi.entity.Vaga;
+import com.mballem.demoparkapi.repository.ClienteVagaRepository;
+import com.mballem.demoparkapi.repository.VagaRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.mballem.demoparkapi.entity.Vaga.StatusVaga.LIVRE;
+import static com.mballem.demoparkapi.entity.Vaga.StatusVaga.OCUPADA;
+
+/**
+ * Escritor assíncrono (write-behind) dos check-ins.
+ * Quando habilitado, o check-in é respondido assim que a vaga é reservada em memória e o registro é gravado
+ * no diário local; um processo agendado grava os check-ins pendentes no banco em lotes, com os inserts
+ * de clientes_tem_vagas e a ocupação das vagas na mesma transação. Os segmentos do diário só são excluídos
+ * após o commit do lote e, se a aplicação cair antes disso, são gravados novamente na inicialização.
+ * Cada vaga só é ocupada no banco se ainda estiver livre. Um check-in já respondido nunca é descartado: se a sua vaga
+ * já foi ocupada por outro veículo, é transferido para outra vaga livre, registrando a vaga informada no check-in,
+ * ou, sem vaga livre, gravado na vaga reservada com o conflito marcado nos check-ins em aberto da vaga.
+ * Pensado para uma única instância da aplicação, assim como o índice de vagas livres.
+ */
+@Slf4j
+@Component
+public class EscritorCheckIn {
+
+    private final ClienteVagaRepository clienteVagaRepository;
+    private final VagaRepository vagaRepository;
+    private final VagaLivreIndex vagaLivreIndex;
+    private final VagaService vagaService;
+    private final OcupacaoVagas ocupacaoVagas;
+    private final TicketAbertoCache ticketAbertoCache;
+    private final ObjectMapper objectMapper;
+    private final AuditorAware<String> auditorAware;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean habilitado;
+    private final Path diretorio;
+
+    // Check-ins ainda não gravados no banco, indexados pelo recibo
+    private final Map<String, CheckInPendente> pendentes = new ConcurrentHashMap<>();
+
+    // Sincroniza o diário com a fila de check-ins do segmento atual
+    private final Object trava = new Object();
+    private DiarioCheckIn diario;
+    private List<CheckInPendente> fila = new ArrayList<>();
+
+    // Lote e segmentos aguardando gravação no banco, mantidos para nova tentativa em caso de falha
+    private final List<CheckInPendente> lote = new ArrayList<>();
+    private final List<Path> segmentos = new ArrayList<>();
+
+    public EscritorCheckIn(ClienteVagaRepository clienteVagaRepository,
+                           VagaRepository vagaRepository,
+                           VagaLivreIndex vagaLivreIndex,
+                           VagaService vagaService,
+                           OcupacaoVagas ocupacaoVagas,
+                           TicketAbertoCache ticketAbertoCache,
+                           ObjectMapper objectMapper,
+                           AuditorAware<String> auditorAware,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${demo-park.estacionamentos.check-in.write-behind:false}") boolean habilitado,
+                           @Value("${demo-park.estacionamentos.check-in.diario:diario-checkin}") String diretorio) {
+        this.clienteVagaRepository = clienteVagaRepository;
+        this.vagaRepository = vagaRepository;
+        this.vagaLivreIndex = vagaLivreIndex;
+        this.vagaService = vagaService;
+        this.ocupacaoVagas = ocupacaoVagas;
+        this.ticketAbertoCache = ticketAbertoCache;
+        this.objectMapper = objectMapper;
+        this.auditorAware = auditorAware;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.habilitado = habilitado;
+        this.diretorio = Path.of(diretorio);
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Abre o diário e grava no banco os check-ins que ficaram pendentes na última execução.
+     * Executado antes da carga do índice de vagas livres, para que essas vagas não sejam oferecidas novamente.
+     */
+    @PostConstruct
+    public void iniciar() throws IOException {
+        if (!habilitado) {
+            return;
+        }
+        diario = new DiarioCheckIn(diretorio, objectMapper);
+        for (Path segmento : diario.getSegmentosAnteriores()) {
+            for (CheckInPendente checkIn : diario.ler(segmento)) {
+                vagaLivreIndex.reservarPendente(checkIn.getVagaId()); // Mantém a vaga reservada até a gravação no banco
+                pendentes.put(checkIn.getRecibo(), checkIn);
+                lote.add(checkIn);
+            }
+            segmentos.add(segmento);
+        }
+        if (!lote.isEmpty()) {
+            log.info("Gravando {} check-ins pendentes do diário", lote.size());
+        }
+        gravarLote();
+    }
+
+    /**
+     * Registra um check-in no diário e o coloca na fila de gravação no banco.
+     * Se o diário não puder ser gravado, a reserva da vaga é desfeita.
+     *
+     * @param clienteVaga Registro de cliente em vaga com recibo, cliente e vaga reservada
+     */
+    public void registrar(ClienteVaga clienteVaga) {
+        CheckInPendente checkIn = CheckInPendente.of(clienteVaga, auditorAware.getCurrentAuditor().orElse(null));
+        synchronized (trava) {
+            try {
+                diario.registrar(checkIn);
+            } catch (IOException ex) {
+                vagaLivreIndex.cancelarReserva(checkIn.getVagaId());
+                throw new UncheckedIOException("Falha ao gravar o check-in no diário", ex);
+            }
+            fila.add(checkIn);
+            pendentes.put(checkIn.getRecibo(), checkIn);
+        }
+    }
+
+    /**
+     * Busca um check-in ainda não gravado no banco.
+     *
+     * @param recibo Recibo de check-in
+     * @return Check-in pendente ou null se o recibo não estiver pendente
+     */
+    public CheckInPendente buscarPendente(String recibo) {
+        return pendentes.get(recibo);
+    }
+
+    /**
+     * Grava imediatamente no banco os check-ins pendentes, se algum dos recibos informados ainda estiver pendente.
+     * Usado antes do check-out, que precisa encontrar o registro no banco. Deve ser chamado fora de uma transação,
+     * para não manter uma conexão presa enquanto o lote é gravado em outra.
+     *
+     * @param recibos Recibos de check-in
+     */
+    public void persistirSePendente(Collection<String> recibos) {
+        if (habilitado && recibos.stream().anyMatch(pendentes::containsKey)) {
+            persistir();
+        }
+    }
+
+    /**
+     * Grava periodicamente no banco os check-ins pendentes.
+     */
+    @Scheduled(fixedDelayString = "${demo-park.estacionamentos.check-in.write-behind-intervalo:200}")
+    public void persistirPendentes() {
+        if (habilitado) {
+            persistir();
+        }
+    }
+
+    /**
+     * Grava os check-ins pendentes antes do encerramento da aplicação.
+     */
+    @PreDestroy
+    public void encerrar() throws IOException {
+        if (habilitado) {
+            persistir();
+            diario.close();
+        }
+    }
+
+    private synchronized void persistir() {
+        synchronized (trava) {
+            if (!fila.isEmpty()) {
+                try {
+                    segmentos.add(diario.rotacionar()); // Os check-ins da fila estão todos no segmento fechado
+                } catch (IOException ex) {
+                    log.error("Falha ao rotacionar o diário de check-ins", ex);
+                    return;
+                }
+                lote.addAll(fila);
+                fila = new ArrayList<>();
+            }
+        }
+        gravarLote();
+    }
+
+    private synchronized void gravarLote() {
+        if (lote.isEmpty()) {
+            excluirSegmentos();
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> gravar(lote));
+        } catch (RuntimeException ex) {
+            log.error("Falha ao gravar {} check-ins pendentes, nova tentativa no próximo ciclo", lote.size(), ex);
+            return;
+        }
+        for (CheckInPendente checkIn : lote) {
+            pendentes.remove(checkIn.getRecibo());
+            vagaLivreIndex.confirmarReserva(checkIn.getVagaId()); // Vagas ocupadas por outro veículo também não voltam ao índice
+        }
+        lote.clear();
+        excluirSegmentos();
+    }
+
+    private void gravar(List<CheckInPendente> checkIns) {
+        // Ignora recibos já gravados por uma tentativa anterior cujo commit não foi confirmado
+        Set<String> gravados = new HashSet<>(clienteVagaRepository.findRecibosByReciboIn(
+                checkIns.stream().map(CheckInPendente::getRecibo).toList()));
+        List<ClienteVaga> registros = new ArrayList<>(checkIns.size());
+        Map<Long, ClienteVaga> ocupadasNoLote = new HashMap<>(); // Registros do lote indexados pela vaga
+        for (CheckInPendente checkIn : checkIns) {
+            if (gravados.contains(checkIn.getRecibo())) {
+                continue;
+            }
+            ClienteVaga registro = checkIn.toClienteVaga();
+            // Update condicional: uma vaga livre nunca é entregue a dois veículos
+            if (vagaRepository.updateStatusByIdAndStatus(checkIn.getVagaId(), LIVRE, OCUPADA) != 1) {
+                realocar(registro, ocupadasNoLote);
+            }
+            ocupadasNoLote.putIfAbsent(registro.getVaga().getId(), registro);
+            registros.add(registro);
+        }
+        if (!registros.isEmpty()) {
+            clienteVagaRepository.inserirEmLote(registros);
+        }
+    }
+
+    /**
+     * Trata um check-in cuja vaga reservada já está ocupada no banco. O cliente já recebeu o recibo e a vaga,
+     * por isso o check-in é sempre gravado: transferido para outra vaga livre, com a vaga informada registrada
+     * para o check-out e a consulta do recibo, ou, sem vaga livre, mantido na vaga reservada com o conflito marcado
+     * nele e nos demais check-ins em aberto da vaga, que só é liberada na saída do último veículo.
+     * Cache e contadores são corrigidos somente após o commit do lote.
+     *
+     * @param registro       Registro de cliente em vaga do check-in
+     * @param ocupadasNoLote Registros do lote ainda não inseridos, indexados pela vaga
+     */
+    private void realocar(ClienteVaga registro, Map<Long, ClienteVaga> ocupadasNoLote) {
+        Vaga reservada = registro.getVaga();
+        ocupacaoVagas.liberar(); // A vaga reservada já foi contada pelo check-in que a ocupou
+        List<Vaga> vagas = vagaService.ocuparVagasLivres(1);
+        if (!vagas.isEmpty()) {
+            registro.setVaga(vagas.get(0));
+            registro.setVagaInformada(reservada.getCodigo());
+            ticketAbertoCache.adicionar(registro);
+            log.warn("Check-in {} transferido para a vaga {}: a vaga {} informada no check-in já estava ocupada",
+                    registro.getRecibo(), registro.getVaga().getCodigo(), reservada.getCodigo());
+            return;
+        }
+        registro.setConflitoVaga(true);
+        ticketAbertoCache.adicionar(registro);
+        ClienteVaga doLote = ocupadasNoLote.get(reservada.getId());
+        if (doLote != null) {
+            doLote.setConflitoVaga(true);
+            ticketAbertoCache.adicionar(doLote);
+        }
+        for (ClienteVaga aberto : clienteVagaRepository.findAllByVagaIdAndDataSaidaIsNull(reservada.getId())) {
+            aberto.setConflitoVaga(true); // Atualizado no commit do lote
+            ticketAbertoCache.adicionar(aberto);
+        }
+        log.error("Check-in {} gravado em conflito na vaga {}: a vaga já estava ocupada e não há outra vaga livre",
+                registro.getRecibo(), reservada.getCodigo());
+    }
+
+    private void excluirSegmentos() {
+        for (Path segmento : segmentos) {
+            try {
+                diario.excluir(segmento);
+            } catch (IOException ex) {
+                log.warn("Falha ao excluir o segmento {} do diário de check-ins", segmento, ex);
+            }
+        }
+        segmentos.clear();
+    }
+}
@@ -3,13 +3,23 @@ package com.mballem.demoparkapi.service;
 import com.mballem.demoparkapi.entity.Cliente;
 import com.mballem.demoparkapi.entity.ClienteVaga;
 import com.mballem.demoparkapi.entity.Vaga;
-import com.mballem.demoparkapi.util.EstacionamentoUtils;
+import com.mballem.demoparkapi.exception.EntityNotFoundException;
+import com.mballem.demoparkapi.exception.ReciboCheckInNotFoundException;
+import com.mballem.demoparkapi.exception.VagaDisponivelException;
+import com.mballem.demoparkapi.util.GeradorRecibo;
+import com.mballem.demoparkapi.util.TabelaTarifas;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Service
@@ -18,9 +28,15 @@ public class EstacionamentoService {
     private final ClienteVagaService clienteVagaService;
     private final ClienteService clienteService;
     private final VagaService vagaService;
+    private final GeradorRecibo geradorRecibo;
+    private final TabelaTarifas tabelaTarifas;
+    private final TicketAbertoCache ticketAbertoCache;
+    private final EscritorCheckIn escritorCheckIn;
 
     /**
      * Realiza o check-in de um cliente em uma vaga de estacionamento.
+     * Com o modo write-behind habilitado, a vaga é reservada em memória e o registro é gravado no diário local,
+     * sendo inserido no banco posteriormente pelo {@link EscritorCheckIn}.
      *
      * @param clienteVaga Registro de cliente em vaga para check-in
      * @return Registro salvo após o check-in
@@ -30,15 +46,72 @@ public class EstacionamentoService {
         Cliente cliente = clienteService.buscarPorCpf(clienteVaga.getCliente().getCpf());
         clienteVaga.setCliente(cliente); // Define o cliente no registro de cliente em vaga
 
-        Vaga vaga = vagaService.buscarPorVagaLivre();
-        vaga.setStatus(Vaga.StatusVaga.OCUPADA);
+        if (escritorCheckIn.isHabilitado()) {
+            Vaga reservada = vagaService.reservarVagaLivre(); // Reserva a vaga somente em memória
+            if (reservada != null) {
+                return checkInWriteBehind(clienteVaga, reservada);
+            }
+        }
+
+        Vaga vaga = vagaService.ocuparVagaLivre(); // Ocupa uma vaga livre sem disputar com check-ins concorrentes
         clienteVaga.setVaga(vaga); // Define a vaga no registro de cliente em vaga
 
         clienteVaga.setDataEntrada(LocalDateTime.now()); // Define a data de entrada
 
-        clienteVaga.setRecibo(EstacionamentoUtils.gerarRecibo()); // Gera um recibo único
+        clienteVaga.setRecibo(geradorRecibo.gerar()); // Gera um recibo único
 
-        return clienteVagaService.salvar(clienteVaga); // Salva o registro de cliente em vaga
+        ClienteVaga salvo = clienteVagaService.salvar(clienteVaga); // Salva o registro de cliente em vaga
+        ticketAbertoCache.adicionar(salvo); // Disponibiliza o ticket para consultas após o commit
+        return salvo;
+    }
+
+    /**
+     * Realiza o check-in de vários veículos em uma única transação.
+     * Os clientes são localizados com uma única consulta, as vagas livres são ocupadas de uma vez
+     * e os registros são inseridos em lote. Itens com CPF não cadastrado ou sem vaga livre
+     * falham individualmente, sem impedir o check-in dos demais.
+     *
+     * @param registros Registros de cliente em vaga para check-in, na ordem recebida
+     * @return Resultado do check-in de cada registro, na mesma ordem recebida
+     */
+    @Transactional
+    public List<ResultadoLote<ClienteVaga>> checkInEmLote(List<ClienteVaga> registros) {
+        List<String> cpfs = registros.stream()
+                .map(registro -> registro.getCliente().getCpf())
+                .distinct()
+                .collect(Collectors.toList());
+        Map<String, Cliente> clientes = clienteService.buscarPorCpfs(cpfs); // Localiza todos os clientes em uma única consulta
+
+        long comCliente = registros.stream()
+                .filter(registro -> clientes.containsKey(registro.getCliente().getCpf()))
+                .count();
+        Iterator<Vaga> vagas = vagaService.ocuparVagasLivres((int) comCliente).iterator(); // Ocupa as vagas de todo o lote
+
+        LocalDateTime dataEntrada = LocalDateTime.now(); // Define a mesma data de entrada para todo o lote
+        List<ResultadoLote<ClienteVaga>> resultados = new ArrayList<>(registros.size());
+        List<ClienteVaga> validos = new ArrayList<>(registros.size());
+        for (ClienteVaga registro : registros) {
+            String cpf = registro.getCliente().getCpf();
+            Cliente cliente = clientes.get(cpf);
+            if (cliente == null) {
+                resultados.add(ResultadoLote.falha(new EntityNotFoundException("Cliente", cpf)));
+                continue;
+            }
+            if (!vagas.hasNext()) {
+                resultados.add(ResultadoLote.falha(new VagaDisponivelException()));
+                continue;
+            }
+            registro.setCliente(cliente);
+            registro.setVaga(vagas.next());
+            registro.setDataEntrada(dataEntrada);
+            registro.setRecibo(geradorRecibo.gerar()); // Gera um recibo único
+            validos.add(registro);
+            resultados.add(ResultadoLote.sucesso(registro));
+        }
+
+        clienteVagaService.salvarEmLote(validos); // Insere os registros válidos em lote
+        validos.forEach(ticketAbertoCache::adicionar); // Disponibiliza os tickets para consultas após o commit
+        return resultados;
     }
 
     /**
@@ -53,17 +126,85 @@ public class EstacionamentoService {
 
         LocalDateTime dataSaida = LocalDateTime.now(); // Obtém a data de saída atual
 
-        BigDecimal valor = EstacionamentoUtils.calcularCusto(clienteVaga.getDataEntrada(), dataSaida); // Calcula o custo do estacionamento
-        clienteVaga.setValor(valor); // Define o valor calculado no registro
+        long valor = tabelaTarifas.calcularCusto(clienteVaga.getDataEntrada(), dataSaida); // Calcula o custo do estacionamento em centavos
+        clienteVaga.setValor(TabelaTarifas.toReais(valor)); // Define o valor calculado no registro
 
-        long totalDeVezes = clienteVagaService.getTotalDeVezesEstacionamentoCompleto(clienteVaga.getCliente().getCpf()); // Obtém o total de vezes que o cliente completou o estacionamento
+        long totalDeVezes = clienteService.registrarEstacionamentoCompleto(clienteVaga.getCliente()); // Incrementa o total do cliente e obtém o valor anterior
 
-        BigDecimal desconto = EstacionamentoUtils.calcularDesconto(valor, totalDeVezes); // Calcula o desconto aplicável
-        clienteVaga.setDesconto(desconto); // Define o desconto no registro
+        long desconto = tabelaTarifas.calcularDesconto(valor, totalDeVezes); // Calcula o desconto aplicável em centavos
+        clienteVaga.setDesconto(TabelaTarifas.toReais(desconto)); // Define o desconto no registro
 
         clienteVaga.setDataSaida(dataSaida); // Define a data de saída no registro
-        clienteVaga.getVaga().setStatus(Vaga.StatusVaga.LIVRE); // Libera a vaga utilizada
+        liberarVaga(clienteVaga); // Libera a vaga utilizada
+        ticketAbertoCache.remover(recibo); // Retira o ticket do cache após o commit
 
         return clienteVagaService.salvar(clienteVaga); // Salva o registro atualizado após o check-out
     }
+
+    /**
+     * Realiza o check-out de vários veículos em uma única transação.
+     * Os registros em aberto são obtidos com uma única consulta, o total de estacionamentos completos
+     * de cada cliente é incrementado uma única vez pela quantidade de check-outs do cliente no lote,
+     * o custo e o desconto são calculados em memória e as alterações dos registros e das vagas
+     * são enviadas ao banco em lotes JDBC no commit. Recibos inexistentes, já finalizados ou repetidos
+     * no lote falham individualmente, sem impedir o check-out dos demais.
+     *
+     * @param recibos Recibos de check-in, na ordem recebida
+     * @return Resultado do check-out de cada recibo, na mesma ordem recebida
+     */
+    @Transactional
+    public List<ResultadoLote<ClienteVaga>> checkOutEmLote(List<String> recibos) {
+        Map<String, ClienteVaga> abertos = clienteVagaService.buscarPorRecibos(recibos); // Busca os registros em aberto em uma única consulta
+
+        List<Cliente> clientes = recibos.stream()
+                .distinct()
+                .map(abertos::get)
+                .filter(Objects::nonNull)
+                .map(ClienteVaga::getCliente)
+                .collect(Collectors.toList());
+        Map<String, Long> totais = clientes.isEmpty()
+                ? new HashMap<>()
+                : new HashMap<>(clienteService.registrarEstacionamentosCompletos(clientes)); // Incrementa o total de cada cliente uma única vez
+
+        LocalDateTime dataSaida = LocalDateTime.now(); // Define a mesma data de saída para todo o lote
+        List<ResultadoLote<ClienteVaga>> resultados = new ArrayList<>(recibos.size());
+        for (String recibo : recibos) {
+            ClienteVaga clienteVaga = abertos.remove(recibo); // Remove para que um recibo repetido no lote falhe
+            if (clienteVaga == null) {
+                resultados.add(ResultadoLote.falha(new ReciboCheckInNotFoundException(recibo)));
+                continue;
+            }
+
+            long valor = tabelaTarifas.calcularCusto(clienteVaga.getDataEntrada(), dataSaida); // Calcula o custo do estacionamento em centavos
+            clienteVaga.setValor(TabelaTarifas.toReais(valor));
+
+            String cpf = clienteVaga.getCliente().getCpf();
+            long totalDeVezes = totais.getOrDefault(cpf, 0L);
+            clienteVaga.setDesconto(TabelaTarifas.toReais(tabelaTarifas.calcularDesconto(valor, totalDeVezes))); // Calcula o desconto aplicável
+            totais.put(cpf, totalDeVezes + 1); // Considera este check-out nos próximos recibos do mesmo cliente no lote
+
+            clienteVaga.setDataSaida(dataSaida);
+            liberarVaga(clienteVaga); // Libera a vaga utilizada
+            ticketAbertoCache.remover(recibo); // Retira o ticket do cache após o commit
+            resultados.add(ResultadoLote.sucesso(clienteVaga));
+        }
+        return resultados; // Registros e vagas gerenciados são atualizados em lote no commit
+    }
+
+    private void liberarVaga(ClienteVaga clienteVaga) {
+        // Uma vaga em conflito, compartilhada por check-ins em aberto, só é liberada na saída do último veículo
+        if (Boolean.TRUE.equals(clienteVaga.getConflitoVaga()) && clienteVagaService.existeOutroEmAbertoNaVaga(clienteVaga)) {
+            return;
+        }
+        vagaService.liberar(clienteVaga.getVaga());
+    }
+
+    private ClienteVaga checkInWriteBehind(ClienteVaga clienteVaga, Vaga vaga) {
+        clienteVaga.setVaga(vaga);
+        clienteVaga.setDataEntrada(LocalDateTime.now());
+        clienteVaga.setRecibo(geradorRecibo.gerar());
+        escritorCheckIn.registrar(clienteVaga); // Grava no diário; o banco é atualizado pelo escritor em lote
+        ticketAbertoCache.adicionar(clienteVaga);
+        return clienteVaga;
+    }
 }
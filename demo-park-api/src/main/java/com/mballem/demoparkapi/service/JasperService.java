@@ -3,61 +3,109 @@ package com.mballem.demoparkapi.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRParameter;
 import net.sf.jasperreports.engine.JasperExportManager;
 import net.sf.jasperreports.engine.JasperFillManager;
 import net.sf.jasperreports.engine.JasperPrint;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.util.JRSwapFile;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.sql.DataSource;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 
+/**
+ * Serviço de geração de relatórios Jasper.
+ * Não guarda estado entre chamadas: os parâmetros são próprios de cada relatório e cada preenchimento usa a sua
+ * própria conexão, devolvida ao pool ao fim do preenchimento. Vários relatórios podem ser gerados em paralelo.
+ */
 @Slf4j
 @RequiredArgsConstructor
 @Service
 public class JasperService {
 
-    private final ResourceLoader resourceLoader;
-    private final DataSource dataSource;
+    private static final String JASPER_DIRETORIO = "classpath:reports/";
+    private static final Locale LOCALE = new Locale("pt", "BR");
 
-    private Map<String, Object> params = new HashMap<>();
+    private final RelatorioTemplateCache templateCache;
+    private final DataSource dataSource;
 
-    private static final String JASPER_DIRETORIO = "classpath:reports/";
+    // Preenchimento com paginação virtual em arquivo de troca, para relatórios muito grandes
+    @Value("${demo-park.relatorios.virtualizador.habilitado:false}")
+    private boolean virtualizadorHabilitado;
+    @Value("${demo-park.relatorios.virtualizador.paginas-em-memoria:50}")
+    private int paginasEmMemoria;
+    @Value("${demo-park.relatorios.virtualizador.diretorio:${java.io.tmpdir}}")
+    private String diretorioTroca;
 
     /**
-     * Adiciona parâmetros ao relatório Jasper.
+     * Preenche um relatório Jasper com os dados do banco de dados.
      *
-     * @param key   Chave do parâmetro
-     * @param value Valor do parâmetro
+     * @param relatorio  Nome do relatório, sem a extensão .jasper
+     * @param parametros Parâmetros do relatório
+     * @return Relatório preenchido
      */
-    public void addParams(String key, Object value) {
-        this.params.put("IMAGEM_DIRETORIO", JASPER_DIRETORIO);
-        this.params.put("REPORT_LOCALE", new Locale("pt", "BR"));
-        this.params.put(key, value);
+    public JasperPrint preencher(String relatorio, Map<String, Object> parametros) {
+        Map<String, Object> params = new HashMap<>(parametros);
+        params.put("IMAGEM_DIRETORIO", JASPER_DIRETORIO);
+        params.put("REPORT_LOCALE", LOCALE);
+        JasperReport template = templateCache.buscar(relatorio); // Relatório já compilado, mantido em cache
+        try (Connection connection = dataSource.getConnection()) {
+            return JasperFillManager.fillReport(template, params, connection);
+        } catch (JRException | SQLException e) {
+            log.error("Jasper Reports ::: ", e.getCause()); // Log de erro caso ocorra alguma exceção
+            throw new RuntimeException(e); // Lança uma exceção em caso de erro
+        }
     }
 
     /**
-     * Gera um arquivo PDF a partir de um relatório Jasper.
+     * Gera um PDF a partir de um relatório Jasper, escrevendo-o diretamente na saída à medida que é exportado.
+     * A saída só é aberta depois que o relatório foi preenchido: uma falha no preenchimento lança a exceção
+     * sem que nada tenha sido escrito, permitindo responder com o status de erro em vez de um PDF incompleto.
+     * Com o virtualizador habilitado, as páginas preenchidas que excedem o limite em memória são gravadas em um
+     * arquivo de troca temporário, removido ao fim da exportação, limitando o heap usado por relatório.
      *
-     * @return Arquivo PDF gerado como array de bytes
+     * @param relatorio  Nome do relatório, sem a extensão .jasper
+     * @param parametros Parâmetros do relatório
+     * @param saida      Abre a saída em que o PDF é escrito, chamada somente após o preenchimento
      */
-    public byte[] gerarPdf() {
-        byte[] bytes = null;
+    public void gerarPdf(String relatorio, Map<String, Object> parametros, SaidaPdf saida) throws IOException {
+        JRSwapFileVirtualizer virtualizer = virtualizadorHabilitado
+                ? new JRSwapFileVirtualizer(paginasEmMemoria, new JRSwapFile(diretorioTroca, 4096, 100), true)
+                : null;
         try {
-            Resource resource = resourceLoader.getResource(JASPER_DIRETORIO.concat("estacionamentos.jasper"));
-            InputStream stream = resource.getInputStream();
-            JasperPrint print = JasperFillManager.fillReport(stream, params, dataSource.getConnection());
-            bytes = JasperExportManager.exportReportToPdf(print); // Exporta o relatório para PDF
-        } catch (IOException | JRException | SQLException e) {
-            log.error("Jasper Reports ::: ", e.getCause()); // Log de erro caso ocorra alguma exceção
-            throw new RuntimeException(e); // Lança uma exceção em caso de erro
+            Map<String, Object> params = new HashMap<>(parametros);
+            if (virtualizer != null) {
+                params.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
+            }
+            JasperPrint print = preencher(relatorio, params);
+            if (virtualizer != null) {
+                virtualizer.setReadOnly(true); // Preenchimento concluído: a exportação só lê as páginas virtualizadas
+            }
+            JasperExportManager.exportReportToPdfStream(print, saida.abrir()); // Exporta o relatório para PDF
+        } catch (JRException e) {
+            log.error("Jasper Reports ::: ", e.getCause());
+            throw new RuntimeException(e);
+        } finally {
+            if (virtualizer != null) {
+                virtualizer.cleanup(); // Remove o arquivo de troca
+            }
         }
-        return bytes; // Retorna o array de bytes do PDF gerado
+    }
+
+    /**
+     * Saída de um PDF gerado, aberta somente quando o relatório já foi preenchido.
+     */
+    @FunctionalInterface
+    public interface SaidaPdf {
+        OutputStream abrir() throws IOException;
     }
 }
@@ -0,0 +1,57 @@
+package com.mballem.demoparkapi.service;
+
+import com.mballem.demoparkapi.entity.MigracaoDados;
+import com.mballem.demoparkapi.repository.MigracaoDadosRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
+
+/**
+ * Migrações de dados executadas uma única vez, na inicialização da aplicação e antes de ela receber requisições.
+ * Cada migração é aplicada na mesma transação em que é registrada em migracoes_dados, de modo que uma falha
+ * não a marca como executada e ela é tentada novamente na próxima inicialização.
+ */
+@Slf4j
+@Service
+public class MigracaoDadosService {
+
+    // Inicializa o total de estacionamentos completos dos clientes a partir do histórico existente
+    static final String TOTAL_ESTACIONAMENTOS = "clientes-total-estacionamentos";
+
+    private final MigracaoDadosRepository migracaoDadosRepository;
+    private final ClienteService clienteService;
+    private final TransactionTemplate transactionTemplate;
+
+    public MigracaoDadosService(MigracaoDadosRepository migracaoDadosRepository,
+                                ClienteService clienteService,
+                                PlatformTransactionManager transactionManager) {
+        this.migracaoDadosRepository = migracaoDadosRepository;
+        this.clienteService = clienteService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Executa as migrações de dados ainda não registradas.
+     */
+    @PostConstruct
+    public void migrar() {
+        executarUmaVez(TOTAL_ESTACIONAMENTOS, clienteService::recalcularTotaisDeEstacionamentos);
+    }
+
+    private void executarUmaVez(String nome, IntSupplier migracao) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (migracaoDadosRepository.existsById(nome)) {
+                return;
+            }
+            int registros = migracao.getAsInt();
+            // A chave primária impede que duas instâncias iniciando juntas registrem a mesma migração
+            migracaoDadosRepository.saveAndFlush(new MigracaoDados(nome, LocalDateTime.now()));
+            log.info("Migração de dados '{}' executada: {} registros atualizados", nome, registros);
+        });
+    }
+}
@@ -0,0 +1,19 @@
+package com.mballem.demoparkapi.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Quantidade de vagas livres e ocupadas em um mesmo instante.
+ */
+@Getter
+@RequiredArgsConstructor
+public class Ocupacao {
+
+    private final long livres;
+    private final long ocupadas;
+
+    public long getTotal() {
+        return livres + ocupadas;
+    }
+}
@@ -0,0 +1,180 @@
+package com.mballem.demoparkapi.service;
+
+import com.mballem.demoparkapi.entity.Vaga;
+import com.mballem.demoparkapi.repository.VagaRepository;
+import com.mballem.demoparkapi.repository.projection.ContagemStatusProjection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.mballem.demoparkapi.entity.Vaga.StatusVaga.LIVRE;
+
+/**
+ * Contadores em memória das vagas livres e ocupadas.
+ * Os dois contadores ficam em um único AtomicLong (vagas livres nos 32 bits menos significativos e ocupadas
+ * nos 32 mais significativos), de modo que uma leitura sempre retorna valores consistentes entre si
+ * e uma ocupação ou liberação altera os dois em uma única operação atômica.
+ * Os contadores são atualizados após o commit de cada alteração e reconciliados periodicamente com o banco.
+ * Nenhum contador fica negativo: uma alteração que o levaria abaixo de zero indica divergência com o banco
+ * e antecipa a reconciliação.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class OcupacaoVagas {
+
+    private static final long MASCARA_LIVRES = 0xFFFFFFFFL;
+    // Contagens repetidas quando há alterações concorrentes antes de adiar a reconciliação para o próximo ciclo
+    private static final int TENTATIVAS = 3;
+
+    private final VagaRepository vagaRepository;
+
+    private final AtomicLong contadores = new AtomicLong();
+
+    // Alterações com commit em andamento, ainda não aplicadas aos contadores
+    private final AtomicInteger emCommit = new AtomicInteger();
+    // Incrementada a cada alteração aplicada, para detectar alterações durante a contagem no banco
+    private final AtomicLong versao = new AtomicLong();
+
+    private volatile boolean divergente;
+
+    /**
+     * @return Quantidade de vagas livres e ocupadas
+     */
+    public Ocupacao buscar() {
+        long valor = contadores.get();
+        return new Ocupacao(valor & MASCARA_LIVRES, valor >>> 32);
+    }
+
+    /**
+     * Conta uma nova vaga após o commit da transação corrente.
+     *
+     * @param status Status da nova vaga
+     */
+    public void adicionar(Vaga.StatusVaga status) {
+        if (status == LIVRE) {
+            aposCommit(1, 0);
+        } else {
+            aposCommit(0, 1);
+        }
+    }
+
+    /**
+     * Move uma vaga de livre para ocupada após o commit da transação corrente.
+     */
+    public void ocupar() {
+        aposCommit(-1, 1);
+    }
+
+    /**
+     * Move uma vaga de ocupada para livre após o commit da transação corrente.
+     */
+    public void liberar() {
+        aposCommit(1, -1);
+    }
+
+    /**
+     * Carrega os contadores a partir do banco de dados quando a aplicação termina de iniciar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        reconciliar();
+        Ocupacao ocupacao = buscar();
+        log.info("Ocupação carregada: {} vagas livres e {} ocupadas", ocupacao.getLivres(), ocupacao.getOcupadas());
+    }
+
+    /**
+     * Reconcilia periodicamente os contadores com uma contagem agrupada no banco de dados.
+     * A contagem só substitui os contadores se nenhuma alteração foi confirmada ou aplicada enquanto era feita;
+     * caso contrário é repetida e, persistindo as alterações concorrentes, a reconciliação fica para o próximo ciclo,
+     * para não descartar alterações aplicadas nem contar duas vezes as já incluídas na contagem.
+     */
+    @Scheduled(initialDelayString = "${demo-park.vagas.reconciliacao-intervalo:60000}",
+            fixedDelayString = "${demo-park.vagas.reconciliacao-intervalo:60000}")
+    public synchronized void reconciliar() {
+        for (int tentativa = 0; tentativa < TENTATIVAS; tentativa++) {
+            long versaoInicial = versao.get();
+            boolean semCommitInicial = emCommit.get() == 0;
+            long livres = 0;
+            long ocupadas = 0;
+            for (ContagemStatusProjection contagem : vagaRepository.countGroupByStatus()) {
+                if (contagem.getStatus() == LIVRE) {
+                    livres += contagem.getTotal();
+                } else {
+                    ocupadas += contagem.getTotal();
+                }
+            }
+            long atual = contadores.get();
+            if (semCommitInicial && emCommit.get() == 0 && versao.get() == versaoInicial
+                    && contadores.compareAndSet(atual, (ocupadas << 32) | livres)) {
+                divergente = false;
+                return;
+            }
+        }
+        log.debug("Reconciliação da ocupação adiada: alterações concorrentes durante a contagem");
+    }
+
+    /**
+     * Antecipa a reconciliação quando algum contador precisou ser limitado a zero.
+     */
+    @Scheduled(fixedDelayString = "${demo-park.vagas.divergencia-intervalo:1000}")
+    public void reconciliarSeDivergente() {
+        if (divergente) {
+            log.warn("Ocupação divergente do banco de dados, reconciliando");
+            reconciliar();
+        }
+    }
+
+    private void aposCommit(long livres, long ocupadas) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            aplicar(livres, ocupadas);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean comitando;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                comitando = true;
+                emCommit.incrementAndGet(); // A contagem no banco pode incluir a alteração antes de ela ser aplicada
+            }
+
+            @Override
+            public void afterCommit() {
+                aplicar(livres, ocupadas);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (comitando) {
+                    emCommit.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    private void aplicar(long deltaLivres, long deltaOcupadas) {
+        long atual;
+        long novo;
+        boolean limitado;
+        do {
+            atual = contadores.get();
+            long livres = (atual & MASCARA_LIVRES) + deltaLivres;
+            long ocupadas = (atual >>> 32) + deltaOcupadas;
+            limitado = livres < 0 || ocupadas < 0;
+            novo = (Math.max(ocupadas, 0) << 32) | Math.max(livres, 0);
+        } while (!contadores.compareAndSet(atual, novo));
+        versao.incrementAndGet();
+        if (limitado) {
+            divergente = true;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.mballem.demoparkapi.service;
+
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.util.JRLoader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache dos relatórios Jasper compilados (.jasper), indexados pelo nome do relatório.
+ * Cada relatório é desserializado uma única vez e reutilizado por todas as requisições, que passam direto ao preenchimento.
+ * Se um diretório de relatórios for configurado, os arquivos desse diretório têm prioridade sobre os do classpath
+ * e são recarregados quando modificados, sem reiniciar a aplicação.
+ */
+@Slf4j
+@Component
+public class RelatorioTemplateCache {
+
+    private static final String CLASSPATH_DIRETORIO = "classpath:reports/";
+    private static final String EXTENSAO = ".jasper";
+
+    private final ResourceLoader resourceLoader;
+    private final Path diretorio;
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+
+    /**
+     * @param diretorio Diretório com os relatórios compilados que substituem os do classpath (vazio desabilita)
+     */
+    public RelatorioTemplateCache(ResourceLoader resourceLoader,
+                                  @Value("${demo-park.relatorios.diretorio:}") String diretorio) {
+        this.resourceLoader = resourceLoader;
+        this.diretorio = diretorio.isBlank() ? null : Path.of(diretorio);
+    }
+
+    /**
+     * Busca um relatório compilado, carregando-o na primeira utilização.
+     *
+     * @param nome Nome do relatório, sem a extensão .jasper
+     * @return Relatório compilado
+     */
+    public JasperReport buscar(String nome) {
+        return templates.computeIfAbsent(nome, this::carregar).relatorio();
+    }
+
+    /**
+     * Recarrega periodicamente os relatórios do diretório configurado cujos arquivos foram modificados.
+     * Se a recarga falhar, por exemplo com o arquivo ainda sendo copiado, a versão anterior continua em uso
+     * e a recarga é tentada novamente na próxima verificação.
+     */
+    @Scheduled(initialDelayString = "${demo-park.relatorios.recarga-intervalo:5000}",
+            fixedDelayString = "${demo-park.relatorios.recarga-intervalo:5000}")
+    public void recarregarModificados() {
+        if (diretorio == null) {
+            return;
+        }
+        templates.forEach((nome, template) -> {
+            if (ultimaModificacao(arquivo(nome)) != template.modificadoEm()) {
+                try {
+                    templates.put(nome, carregar(nome));
+                    log.info("Relatório '{}' recarregado de {}", nome, diretorio);
+                } catch (RuntimeException ex) {
+                    log.warn("Falha ao recarregar o relatório '{}', mantendo a versão anterior", nome, ex);
+                }
+            }
+        });
+    }
+
+    private Template carregar(String nome) {
+        Path arquivo = diretorio == null ? null : arquivo(nome);
+        long modificadoEm = ultimaModificacao(arquivo);
+        try (InputStream stream = modificadoEm >= 0 ? Files.newInputStream(arquivo) : classpath(nome).getInputStream()) {
+            return new Template((JasperReport) JRLoader.loadObject(stream), modificadoEm);
+        } catch (IOException | JRException e) {
+            throw new RuntimeException("Falha ao carregar o relatório " + nome, e);
+        }
+    }
+
+    private Resource classpath(String nome) {
+        return resourceLoader.getResource(CLASSPATH_DIRETORIO + nome + EXTENSAO);
+    }
+
+    private Path arquivo(String nome) {
+        return diretorio.resolve(nome + EXTENSAO);
+    }
+
+    // Data de modificação do arquivo ou -1 se não houver arquivo no diretório, quando o relatório vem do classpath
+    private static long ultimaModificacao(Path arquivo) {
+        try {
+            return arquivo != null && Files.isRegularFile(arquivo) ? Files.getLastModifiedTime(arquivo).toMillis() : -1;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private record Template(JasperReport relatorio, long modificadoEm) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.mballem.demoparkapi.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Resultado do processamento de um item de uma operação em lote.
+ * Contém o valor processado em caso de sucesso ou a exceção que impediu o processamento do item.
+ *
+ * @param <T> Tipo do valor processado
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class ResultadoLote<T> {
+
+    private final T valor;
+    private final RuntimeException erro;
+
+    public static <T> ResultadoLote<T> sucesso(T valor) {
+        return new ResultadoLote<>(valor, null);
+    }
+
+    public static <T> ResultadoLote<T> falha(RuntimeException erro) {
+        return new ResultadoLote<>(null, erro);
+    }
+
+    public boolean isSucesso() {
+        return erro == null;
+    }
+}
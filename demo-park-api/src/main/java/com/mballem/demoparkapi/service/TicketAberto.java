@@ -0,0 +1,58 @@
+package com.mballem.demoparkapi.service;
+
+import com.mballem.demoparkapi.entity.ClienteVaga;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cópia imutável dos dados de um registro de cliente em vaga ainda sem check-out.
+ * Mantida em memória pelo {@link TicketAbertoCache}, independente do contexto de persistência.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class TicketAberto {
+
+    private final String recibo;
+    private final String placa;
+    private final String marca;
+    private final String modelo;
+    private final String cor;
+    private final String clienteCpf;
+    private final String vagaCodigo;
+    private final LocalDateTime dataEntrada;
+    private final String vagaInformada;
+    private final Boolean conflitoVaga;
+
+    public static TicketAberto of(ClienteVaga clienteVaga) {
+        return new TicketAberto(
+                clienteVaga.getRecibo(),
+                clienteVaga.getPlaca(),
+                clienteVaga.getMarca(),
+                clienteVaga.getModelo(),
+                clienteVaga.getCor(),
+                clienteVaga.getCliente().getCpf(),
+                clienteVaga.getVaga().getCodigo(),
+                clienteVaga.getDataEntrada(),
+                clienteVaga.getVagaInformada(),
+                clienteVaga.getConflitoVaga()
+        );
+    }
+
+    public static TicketAberto of(CheckInPendente checkIn) {
+        return new TicketAberto(
+                checkIn.getRecibo(),
+                checkIn.getPlaca(),
+                checkIn.getMarca(),
+                checkIn.getModelo(),
+                checkIn.getCor(),
+                checkIn.getClienteCpf(),
+                checkIn.getVagaCodigo(),
+                checkIn.getDataEntrada(),
+                null, // Transferência e conflito de vaga só são conhecidos na gravação no banco
+                null
+        );
+    }
+}
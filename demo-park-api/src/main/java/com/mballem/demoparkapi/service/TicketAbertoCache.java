@@ -0,0 +1,149 @@
+package com.mballem.demoparkapi.service;
+
+import com.mballem.demoparkapi.entity.ClienteVaga;
+import com.mballem.demoparkapi.repository.ClienteVagaRepository;
+import com.mballem.demoparkapi.util.TransacaoUtils;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache em memória dos tickets em aberto (sem check-out), indexados pelo recibo.
+ * Atende às consultas de recibo sem acessar o banco de dados. O cache é limitado pela capacidade
+ * configurada: quando cheio, o ticket consultado há mais tempo é descartado (LRU) e passa a ser consultado no banco.
+ * Os tickets são adicionados e removidos somente após o commit do check-in e do check-out.
+ * Acertos, falhas, descartes e tamanho são exportados pelo Micrometer com o nome de cache "tickets-abertos".
+ */
+@Slf4j
+@Component
+public class TicketAbertoCache implements MeterBinder {
+
+    private static final String NOME = "tickets-abertos";
+
+    private final ClienteVagaRepository clienteVagaRepository;
+    private final int capacidade;
+    private final Map<String, TicketAberto> tickets;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder descartes = new LongAdder();
+
+    public TicketAbertoCache(ClienteVagaRepository clienteVagaRepository,
+                             @Value("${demo-park.estacionamentos.cache.capacidade:10000}") int capacidade) {
+        this.clienteVagaRepository = clienteVagaRepository;
+        this.capacidade = capacidade;
+        // Ordenado por acesso: a entrada mais antiga é a consultada há mais tempo
+        this.tickets = Collections.synchronizedMap(new LinkedHashMap<>(Math.min(capacidade, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TicketAberto> maisAntigo) {
+                if (size() > TicketAbertoCache.this.capacidade) {
+                    descartes.increment();
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Busca um ticket em aberto pelo recibo.
+     *
+     * @param recibo Recibo de check-in
+     * @return Ticket em aberto ou null se o recibo não estiver no cache
+     */
+    public TicketAberto buscar(String recibo) {
+        TicketAberto ticket = tickets.get(recibo);
+        if (ticket != null) {
+            acertos.increment();
+        } else {
+            falhas.increment();
+        }
+        return ticket;
+    }
+
+    /**
+     * Adiciona um ticket ao cache após o commit do check-in.
+     *
+     * @param clienteVaga Registro de cliente em vaga do check-in
+     */
+    public void adicionar(ClienteVaga clienteVaga) {
+        TicketAberto ticket = TicketAberto.of(clienteVaga); // Copia os dados ainda dentro da transação
+        TransacaoUtils.aposCommit(() -> inserir(ticket));
+    }
+
+    /**
+     * Remove um ticket do cache após o commit do check-out.
+     *
+     * @param recibo Recibo de check-in
+     */
+    public void remover(String recibo) {
+        TransacaoUtils.aposCommit(() -> tickets.remove(recibo));
+    }
+
+    /**
+     * Carrega os tickets em aberto mais recentes durante a inicialização, antes de a aplicação receber requisições,
+     * para que nenhum check-out concluído durante a carga deixe um ticket já finalizado no cache.
+     */
+    @PostConstruct
+    public void carregar() {
+        if (capacidade <= 0) {
+            return;
+        }
+        List<ClienteVaga> abertos = clienteVagaRepository.findAllByDataSaidaIsNull(PageRequest.ofSize(capacidade));
+        // A consulta retorna os mais recentes primeiro; inseridos por último, são os últimos a serem descartados
+        for (int i = abertos.size() - 1; i >= 0; i--) {
+            inserir(TicketAberto.of(abertos.get(i)));
+        }
+        log.info("Cache de tickets em aberto carregado com {} tickets", tickets.size());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", acertos, LongAdder::sum)
+                .tags("cache", NOME, "result", "hit")
+                .description("Consultas de recibo atendidas pelo cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", falhas, LongAdder::sum)
+                .tags("cache", NOME, "result", "miss")
+                .description("Consultas de recibo não encontradas no cache")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", descartes, LongAdder::sum)
+                .tags("cache", NOME)
+                .description("Tickets descartados por falta de capacidade")
+                .register(registry);
+        Gauge.builder("cache.size", tickets, Map::size)
+                .tags("cache", NOME)
+                .description("Quantidade de tickets no cache")
+                .register(registry);
+    }
+
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    public int getTamanho() {
+        return tickets.size();
+    }
+
+    private void inserir(TicketAberto ticket) {
+        if (capacidade > 0) {
+            tickets.put(ticket.getRecibo(), ticket);
+        }
+    }
+}
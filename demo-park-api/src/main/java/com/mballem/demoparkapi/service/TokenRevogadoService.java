@@ -0,0 +1,133 @@
+package com.mballem.demoparkapi.service;
+
+import com.mballem.demoparkapi.repository.TokenRevogadoRepository;
+import com.mballem.demoparkapi.util.FiltroBloom;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serviço de revogação de tokens JWT pelo seu identificador (jti).
+ * Cada token revogado ocupa somente o seu jti e a data até a qual ainda poderia ser aceito;
+ * após essa data o registro é removido pela limpeza periódica.
+ * Os jtis revogados são mantidos também em um filtro de Bloom em memória, consultado a cada requisição:
+ * a tabela só é consultada quando o filtro indica que o token talvez esteja revogado. A cada limpeza o filtro
+ * é recriado somente com os tokens ainda não expirados, o que mantém a memória constante.
+ * Em uma instalação com várias instâncias, um token revogado em outra instância só é reconhecido
+ * após a próxima recriação do filtro.
+ */
+@Slf4j
+@Service
+public class TokenRevogadoService {
+
+    private static final double TAXA_FALSOS_POSITIVOS = 0.01;
+
+    private final TokenRevogadoRepository tokenRevogadoRepository;
+    private final int capacidade;
+
+    private volatile FiltroBloom filtro;
+
+    // Filtro em construção durante a recriação, que também recebe os tokens revogados nesse intervalo
+    private volatile FiltroBloom proximoFiltro;
+
+    private final LongAdder consultas = new LongAdder();
+    private final LongAdder consultasAoBanco = new LongAdder();
+
+    /**
+     * @param capacidade Quantidade esperada de tokens revogados ainda não expirados, usada no dimensionamento do filtro
+     */
+    public TokenRevogadoService(TokenRevogadoRepository tokenRevogadoRepository,
+                                @Value("${demo-park.jwt.revogacao.capacidade:100000}") int capacidade) {
+        this.tokenRevogadoRepository = tokenRevogadoRepository;
+        this.capacidade = capacidade;
+        this.filtro = new FiltroBloom(capacidade, TAXA_FALSOS_POSITIVOS);
+    }
+
+    /**
+     * Revoga um token de forma atômica. Chamado fora de uma transação, para que a falha da inserção
+     * de um jti já revogado não desfaça outras operações.
+     *
+     * @param jti      Identificador do token
+     * @param expiraEm Data até a qual o token ainda poderia ser aceito
+     * @return true se o token foi revogado agora, false se já estava revogado
+     */
+    public boolean revogar(String jti, Date expiraEm) {
+        try {
+            tokenRevogadoRepository.inserir(jti, LocalDateTime.ofInstant(expiraEm.toInstant(), ZoneId.systemDefault()));
+        } catch (DataIntegrityViolationException ex) {
+            return false;
+        }
+        adicionarAoFiltro(jti);
+        return true;
+    }
+
+    /**
+     * Verifica se um token foi revogado, consultando o banco de dados somente quando o filtro indicar
+     * que o token talvez esteja revogado.
+     *
+     * @param jti Identificador do token
+     * @return true se o token foi revogado
+     */
+    public boolean isRevogado(String jti) {
+        consultas.increment();
+        if (!filtro.talvezContenha(jti)) {
+            return false;
+        }
+        consultasAoBanco.increment();
+        return tokenRevogadoRepository.existsById(jti);
+    }
+
+    /**
+     * Carrega o filtro com os tokens revogados ainda não expirados, antes que a aplicação receba requisições.
+     */
+    @PostConstruct
+    public void carregar() {
+        recriarFiltro();
+        log.info("Filtro de tokens revogados carregado");
+    }
+
+    /**
+     * Remove periodicamente os tokens revogados que já não seriam aceitos de qualquer forma
+     * e recria o filtro somente com os tokens restantes.
+     */
+    @Scheduled(initialDelayString = "${demo-park.jwt.revogacao.limpeza-intervalo:3600000}",
+            fixedDelayString = "${demo-park.jwt.revogacao.limpeza-intervalo:3600000}")
+    public void limpar() {
+        int removidos = tokenRevogadoRepository.deleteByExpiraEmBefore(LocalDateTime.now());
+        log.debug("{} tokens revogados expirados removidos", removidos);
+        recriarFiltro();
+    }
+
+    public long getConsultas() {
+        return consultas.sum();
+    }
+
+    public long getConsultasAoBanco() {
+        return consultasAoBanco.sum();
+    }
+
+    private void adicionarAoFiltro(String jti) {
+        // O proximo filtro é lido após o commit da revogação: se ainda for nulo, a carga do novo filtro verá o registro
+        FiltroBloom proximo = proximoFiltro;
+        filtro.adicionar(jti);
+        if (proximo != null) {
+            proximo.adicionar(jti);
+        }
+    }
+
+    private synchronized void recriarFiltro() {
+        FiltroBloom novo = new FiltroBloom(capacidade, TAXA_FALSOS_POSITIVOS);
+        proximoFiltro = novo;
+        tokenRevogadoRepository.findJtiByExpiraEmAfter(LocalDateTime.now()).forEach(novo::adicionar);
+        filtro = novo;
+        proximoFiltro = null;
+    }
+}
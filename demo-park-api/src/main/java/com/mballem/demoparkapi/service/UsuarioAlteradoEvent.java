@@ -0,0 +1,9 @@
+package com.mballem.demoparkapi.service;
+
+/**
+ * Evento publicado quando os dados de um usuário usados na autenticação são criados ou alterados.
+ *
+ * @param username Username do usuário
+ */
+public record UsuarioAlteradoEvent(String username) {
+}
@@ -6,12 +6,17 @@ import com.mballem.demoparkapi.exception.NewPasswordInvalidException;
 import com.mballem.demoparkapi.exception.PasswordInvalidException;
 import com.mballem.demoparkapi.exception.UsernameUniqueViolationException;
 import com.mballem.demoparkapi.repository.UsuarioRepository;
+import com.mballem.demoparkapi.repository.projection.UsuarioProjection;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 @Service
@@ -19,6 +24,7 @@ public class UsuarioService {
 
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Salva um usuário no banco de dados.
@@ -31,7 +37,9 @@ public class UsuarioService {
     public Usuario salvar(Usuario usuario) {
         try {
             usuario.setPassword(passwordEncoder.encode(usuario.getPassword()));
-            return usuarioRepository.save(usuario); // Salva o usuário no banco de dados
+            Usuario salvo = usuarioRepository.save(usuario); // Salva o usuário no banco de dados
+            eventPublisher.publishEvent(new UsuarioAlteradoEvent(salvo.getUsername())); // Invalida o usuário em cache após o commit
+            return salvo;
         } catch (org.springframework.dao.DataIntegrityViolationException ex) {
             throw new UsernameUniqueViolationException(usuario.getUsername()); // Lança exceção se o nome de usuário já existir
         }
@@ -74,17 +82,33 @@ public class UsuarioService {
         }
 
         user.setPassword(passwordEncoder.encode(novaSenha)); // Define a nova senha criptografada
+        eventPublisher.publishEvent(new UsuarioAlteradoEvent(user.getUsername())); // Invalida o usuário em cache após o commit
         return user; // Retorna o usuário com a senha atualizada
     }
 
     /**
-     * Busca todos os usuários cadastrados.
+     * Busca uma página de usuários ordenados pelo ID, a partir do ID do último usuário da página anterior.
      *
+     * @param aposId     ID do último usuário da página anterior ou null para a primeira página
+     * @param quantidade Quantidade máxima de usuários da página
      * @return Lista de usuários encontrados
      */
     @Transactional(readOnly = true)
-    public List<Usuario> buscarTodos() {
-        return usuarioRepository.findAll(); // Busca todos os usuários cadastrados
+    public List<Usuario> buscarTodos(Long aposId, int quantidade) {
+        return usuarioRepository.findByIdGreaterThanOrderByIdAsc(aposId == null ? 0L : aposId, PageRequest.ofSize(quantidade));
+    }
+
+    /**
+     * Percorre todos os usuários cadastrados, ordenados pelo ID, à medida que são lidos do banco de dados.
+     * Os usuários não são mantidos em memória, nem na lista de resultados nem no contexto de persistência.
+     *
+     * @param consumidor Ação executada para cada usuário lido, dentro da transação de leitura
+     */
+    @Transactional(readOnly = true)
+    public void percorrerTodos(Consumer<UsuarioProjection> consumidor) {
+        try (Stream<UsuarioProjection> usuarios = usuarioRepository.streamAll()) {
+            usuarios.forEach(consumidor);
+        }
     }
 
     /**
@@ -100,15 +124,4 @@ public class UsuarioService {
                 () -> new EntityNotFoundException("Usuario", username)
         );
     }
-
-    /**
-     * Busca a role de um usuário pelo nome de usuário.
-     *
-     * @param username Nome de usuário
-     * @return Role do usuário
-     */
-    @Transactional(readOnly = true)
-    public Usuario.Role buscarRolePorUsername(String username) {
-        return usuarioRepository.findRoleByUsername(username); // Busca a role do usuário pelo nome de usuário
-    }
 }
@@ -0,0 +1,207 @@
+package com.mballem.demoparkapi.service;
+
+import com.mballem.demoparkapi.entity.Vaga;
+import com.mballem.demoparkapi.repository.VagaRepository;
+import com.mballem.demoparkapi.util.TransacaoUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import static com.mballem.demoparkapi.entity.Vaga.StatusVaga.LIVRE;
+
+/**
+ * Índice em memória com os IDs das vagas livres.
+ * Permite que uma vaga seja reservada com uma única operação atômica, sem consultar a tabela de vagas.
+ * O banco de dados continua sendo a fonte da verdade: toda vaga reservada deve ser confirmada no banco
+ * e uma reconciliação periódica corrige qualquer divergência.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class VagaLivreIndex {
+
+    private final VagaRepository vagaRepository;
+
+    // IDs das vagas livres, ordenados para manter a ordem de ocupação da consulta original
+    private final ConcurrentSkipListSet<Long> livres = new ConcurrentSkipListSet<>();
+
+    // IDs reservados cuja ocupação ainda não foi concluída; incluir o ID neste conjunto é o que garante a reserva
+    private final Set<Long> reservadas = ConcurrentHashMap.newKeySet();
+
+    // IDs alterados durante a reconciliação em andamento, ignorados por ela (null fora da reconciliação)
+    private volatile Set<Long> alteradasNaReconciliacao;
+
+    /**
+     * Retira do índice a próxima vaga livre.
+     * Se a transação corrente for desfeita, a vaga volta para o índice.
+     *
+     * @return ID da vaga reservada ou null se o índice estiver vazio
+     */
+    public Long reservar() {
+        Long id;
+        while ((id = livres.pollFirst()) != null) {
+            if (reservadas.add(id)) {
+                registrarReserva(id);
+                return id;
+            }
+            // Vaga já reservada por outro check-in: permanece fora do índice
+        }
+        return null;
+    }
+
+    /**
+     * Reserva uma vaga específica, usada quando a vaga livre foi localizada direto no banco.
+     * Se a transação corrente for desfeita, a vaga volta para o índice.
+     *
+     * @param id ID da vaga
+     * @return true se a vaga foi reservada ou false se já estiver reservada por outro check-in
+     */
+    public boolean reservar(Long id) {
+        if (!reservadas.add(id)) {
+            return false;
+        }
+        livres.remove(id);
+        registrarReserva(id);
+        return true;
+    }
+
+    /**
+     * Retira do índice a próxima vaga livre sem vincular a reserva à transação corrente.
+     * A vaga permanece reservada até {@link #confirmarReserva(Long)} ou {@link #cancelarReserva(Long)},
+     * usada quando a ocupação da vaga é gravada no banco posteriormente.
+     *
+     * @return ID da vaga reservada ou null se o índice estiver vazio
+     */
+    public Long reservarPendente() {
+        Long id;
+        while ((id = livres.pollFirst()) != null) {
+            if (reservadas.add(id)) {
+                registrarAlteracao(id);
+                return id;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reserva uma vaga específica sem vincular a reserva à transação corrente,
+     * usada ao recuperar check-ins pendentes do diário.
+     *
+     * @param id ID da vaga
+     */
+    public void reservarPendente(Long id) {
+        reservadas.add(id);
+        livres.remove(id);
+        registrarAlteracao(id);
+    }
+
+    /**
+     * Conclui uma reserva pendente após a ocupação da vaga ser gravada no banco,
+     * ou descarta a reserva de uma vaga que não está mais livre, sem devolvê-la ao índice.
+     *
+     * @param id ID da vaga
+     */
+    public void confirmarReserva(Long id) {
+        reservadas.remove(id);
+        registrarAlteracao(id);
+    }
+
+    /**
+     * Desfaz uma reserva pendente, devolvendo a vaga ao índice.
+     *
+     * @param id ID da vaga
+     */
+    public void cancelarReserva(Long id) {
+        reservadas.remove(id);
+        livres.add(id);
+        registrarAlteracao(id);
+    }
+
+    /**
+     * Devolve uma vaga ao índice após o commit da transação corrente.
+     *
+     * @param id ID da vaga liberada
+     */
+    public void liberar(Long id) {
+        TransacaoUtils.aposCommit(() -> {
+            livres.add(id);
+            registrarAlteracao(id);
+        });
+    }
+
+    /**
+     * Sincroniza o índice com o status de uma vaga salva, após o commit da transação corrente.
+     *
+     * @param vaga Vaga salva
+     */
+    public void atualizar(Vaga vaga) {
+        Long id = vaga.getId();
+        boolean livre = vaga.getStatus() == LIVRE;
+        TransacaoUtils.aposCommit(() -> {
+            if (livre) {
+                livres.add(id);
+            } else {
+                livres.remove(id);
+            }
+            registrarAlteracao(id);
+        });
+    }
+
+    /**
+     * Carrega o índice a partir do banco de dados quando a aplicação termina de iniciar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        reconciliar();
+        log.info("Índice de vagas livres carregado com {} vagas", livres.size());
+    }
+
+    /**
+     * Reconcilia periodicamente o índice com o banco de dados, corrigindo qualquer divergência.
+     * Vagas com reserva em andamento não são devolvidas ao índice, e vagas reservadas, confirmadas ou liberadas
+     * enquanto a consulta é executada são mantidas como estão, pois a consulta pode já estar desatualizada para elas.
+     */
+    @Scheduled(initialDelayString = "${demo-park.vagas.reconciliacao-intervalo:60000}",
+            fixedDelayString = "${demo-park.vagas.reconciliacao-intervalo:60000}")
+    public synchronized void reconciliar() {
+        Set<Long> alteradas = ConcurrentHashMap.newKeySet();
+        alteradasNaReconciliacao = alteradas;
+        try {
+            Set<Long> livresNoBanco = new HashSet<>(vagaRepository.findIdsByStatus(LIVRE));
+            livres.removeIf(id -> !livresNoBanco.contains(id) && !alteradas.contains(id));
+            livresNoBanco.removeAll(reservadas);
+            livresNoBanco.removeAll(alteradas);
+            livres.addAll(livresNoBanco);
+        } finally {
+            alteradasNaReconciliacao = null;
+        }
+    }
+
+    private void registrarReserva(Long id) {
+        registrarAlteracao(id);
+        TransacaoUtils.aposCommit(() -> {
+            reservadas.remove(id);
+            registrarAlteracao(id);
+        });
+        TransacaoUtils.aposRollback(() -> {
+            reservadas.remove(id);
+            livres.add(id);
+            registrarAlteracao(id);
+        });
+    }
+
+    private void registrarAlteracao(Long id) {
+        Set<Long> alteradas = alteradasNaReconciliacao;
+        if (alteradas != null) {
+            alteradas.add(id);
+        }
+    }
+}
@@ -7,16 +7,28 @@ import com.mballem.demoparkapi.exception.VagaDisponivelException;
 import com.mballem.demoparkapi.repository.VagaRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
 import static com.mballem.demoparkapi.entity.Vaga.StatusVaga.LIVRE;
+import static com.mballem.demoparkapi.entity.Vaga.StatusVaga.OCUPADA;
 
 @RequiredArgsConstructor
 @Service
 public class VagaService {
 
     private final VagaRepository vagaRepository;
+    private final VagaLivreIndex vagaLivreIndex;
+    private final OcupacaoVagas ocupacaoVagas;
+
+    // Quantidade de vagas livres candidatas lidas do banco por consulta quando o índice está vazio
+    private static final int VAGAS_CANDIDATAS = 20;
 
     /**
      * Salva uma vaga no banco de dados.
@@ -28,7 +40,10 @@ public class VagaService {
     @Transactional
     public Vaga salvar(Vaga vaga) {
         try {
-            return vagaRepository.save(vaga); // Salva a vaga no banco de dados
+            Vaga salva = vagaRepository.save(vaga); // Salva a vaga no banco de dados
+            vagaLivreIndex.atualizar(salva); // Mantém o índice de vagas livres sincronizado
+            ocupacaoVagas.adicionar(salva.getStatus()); // Conta a nova vaga na ocupação
+            return salva;
         } catch (DataIntegrityViolationException ex) {
             throw new CodigoUniqueViolationException("Vaga", vaga.getCodigo()); // Lança exceção se o código da vaga já existir
         }
@@ -49,15 +64,126 @@ public class VagaService {
     }
 
     /**
-     * Busca a primeira vaga livre.
+     * Ocupa uma vaga livre.
+     * A vaga candidata é retirada do índice de vagas livres em memória e ocupada no banco por um
+     * update condicional (status = LIVRE), de modo que check-ins concorrentes nunca ocupem a mesma vaga
+     * e não precisem aguardar uns pelos outros. Se o índice estiver vazio ou divergente,
+     * as candidatas são lidas diretamente do banco em páginas por ordem de ID, a partir de um ID aleatório para espalhar
+     * a concorrência e dando a volta até o início, de modo que nenhuma vaga livre deixe de ser tentada.
      *
-     * @return Vaga livre encontrada
+     * @return Vaga ocupada
      * @throws VagaDisponivelException Exceção lançada se nenhuma vaga livre for encontrada
      */
+    @Transactional
+    public Vaga ocuparVagaLivre() {
+        Vaga vaga = tentarOcuparVagaLivre();
+        if (vaga == null) {
+            throw new VagaDisponivelException();
+        }
+        return vaga;
+    }
+
+    /**
+     * Ocupa até a quantidade informada de vagas livres, com a mesma estratégia de {@link #ocuparVagaLivre()}.
+     *
+     * @param quantidade Quantidade de vagas desejada
+     * @return Vagas ocupadas, podendo conter menos vagas que a quantidade desejada
+     */
+    @Transactional
+    public List<Vaga> ocuparVagasLivres(int quantidade) {
+        List<Vaga> vagas = new ArrayList<>(quantidade);
+        Vaga vaga;
+        while (vagas.size() < quantidade && (vaga = tentarOcuparVagaLivre()) != null) {
+            vagas.add(vaga);
+        }
+        return vagas;
+    }
+
+    /**
+     * Reserva uma vaga livre somente no índice em memória, sem gravar a ocupação no banco.
+     * A reserva deve ser confirmada pelo {@link EscritorCheckIn} após gravar a ocupação da vaga.
+     * Candidatas que não estão mais livres no banco, por divergência do índice, são descartadas.
+     *
+     * @return Vaga reservada ou null se o índice de vagas livres estiver vazio
+     */
     @Transactional(readOnly = true)
-    public Vaga buscarPorVagaLivre() {
-        return vagaRepository.findFirstByStatus(LIVRE).orElseThrow(
-                () -> new VagaDisponivelException()
+    public Vaga reservarVagaLivre() {
+        Long id;
+        while ((id = vagaLivreIndex.reservarPendente()) != null) {
+            Optional<Vaga> vaga = vagaRepository.findById(id);
+            if (vaga.isPresent() && vaga.get().getStatus() == LIVRE) {
+                ocupacaoVagas.ocupar();
+                return vaga.get();
+            }
+            vagaLivreIndex.confirmarReserva(id); // Vaga removida ou já ocupada no banco: descarta a reserva
+        }
+        return null;
+    }
+
+    private Vaga tentarOcuparVagaLivre() {
+        Long id;
+        while ((id = vagaLivreIndex.reservar()) != null) {
+            if (ocupar(id)) {
+                return buscarVagaOcupada(id);
+            }
+            // Divergência entre índice e banco: a vaga permanece fora do índice até a próxima reconciliação
+        }
+        Long maiorId = vagaRepository.findMaxId();
+        if (maiorId == null) {
+            return null;
+        }
+        long inicio = ThreadLocalRandom.current().nextLong(maiorId + 1);
+        Vaga vaga = ocuparVagaLivreEntre(inicio, maiorId);
+        return vaga != null ? vaga : ocuparVagaLivreEntre(Long.MIN_VALUE, inicio);
+    }
+
+    private Vaga ocuparVagaLivreEntre(long aposId, long ateId) {
+        List<Long> candidatas;
+        while (!(candidatas = vagaRepository.findIdsByStatusEntre(LIVRE, aposId, ateId, PageRequest.ofSize(VAGAS_CANDIDATAS))).isEmpty()) {
+            for (Long candidata : candidatas) {
+                // Vagas já reservadas por outro check-in em andamento ou ocupadas por outra instância são ignoradas
+                if (vagaLivreIndex.reservar(candidata) && ocupar(candidata)) {
+                    return buscarVagaOcupada(candidata);
+                }
+            }
+            aposId = candidatas.get(candidatas.size() - 1); // Próxima página, após as candidatas já disputadas
+        }
+        return null;
+    }
+
+    private boolean ocupar(Long id) {
+        if (vagaRepository.updateStatusByIdAndStatus(id, LIVRE, OCUPADA) == 1) {
+            ocupacaoVagas.ocupar();
+            return true;
+        }
+        return false;
+    }
+
+    private Vaga buscarVagaOcupada(Long id) {
+        Vaga vaga = vagaRepository.findById(id).orElseThrow(
+                () -> new EntityNotFoundException("Vaga", String.valueOf(id))
         );
+        vaga.setStatus(OCUPADA); // Mantém a entidade consistente caso já estivesse no contexto de persistência
+        return vaga;
+    }
+
+    /**
+     * Libera uma vaga ocupada, devolvendo-a ao índice de vagas livres e atualizando a ocupação após o commit.
+     *
+     * @param vaga Vaga a ser liberada
+     */
+    public void liberar(Vaga vaga) {
+        vaga.setStatus(LIVRE);
+        vagaLivreIndex.liberar(vaga.getId());
+        ocupacaoVagas.liberar();
+    }
+
+    /**
+     * Busca a quantidade de vagas livres e ocupadas nos contadores em memória, sem consultar o banco.
+     *
+     * @return Ocupação atual das vagas
+     */
+    public Ocupacao buscarOcupacao() {
+        return ocupacaoVagas.buscar();
     }
 }
@@ -0,0 +1,64 @@
+package com.mballem.demoparkapi.util;
+
+import com.mballem.demoparkapi.exception.CursorInvalidoException;
+import com.mballem.demoparkapi.exception.OrdenacaoCursorInvalidaException;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Function;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CursorUtils {
+
+    private static final String SEPARADOR = "\u001F";
+
+    /**
+     * Método estático para gerar o cursor opaco da paginação por keyset a partir dos valores da chave de ordenação
+     * do último registro da página.
+     * @param valores Valores da chave de ordenação, na ordem da ordenação.
+     * @return Cursor codificado em Base64 (URL safe), a ser enviado de volta pelo cliente para obter a próxima página.
+     */
+    public static String codificar(Object... valores) {
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                texto.append(SEPARADOR);
+            }
+            texto.append(valores[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Método estático para recuperar os valores da chave de ordenação de um cursor gerado por {@link #codificar}.
+     * @param cursor Cursor recebido do cliente.
+     * @param conversor Função que converte os valores do cursor, na ordem da ordenação, para o tipo da chave.
+     * @return Chave de ordenação do cursor.
+     * @throws CursorInvalidoException se o cursor não puder ser decodificado ou convertido.
+     */
+    public static <T> T decodificar(String cursor, Function<String[], T> conversor) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return conversor.apply(texto.split(SEPARADOR, -1));
+        } catch (RuntimeException ex) {
+            throw new CursorInvalidoException();
+        }
+    }
+
+    /**
+     * Método estático para validar a ordenação recebida junto com um cursor. A paginação por keyset segue sempre
+     * a ordenação da chave do cursor, então uma ordenação diferente da padrão não pode ser atendida.
+     * @param ordenacao Ordenação recebida na requisição, ou a padrão se nenhuma foi informada.
+     * @param ordenacaoPadrao Ordenação padrão da listagem, compatível com a chave do cursor.
+     * @param chave Descrição da chave do cursor, usada na mensagem de erro.
+     * @throws OrdenacaoCursorInvalidaException se a ordenação for diferente da padrão.
+     */
+    public static void validarOrdenacao(Sort ordenacao, Sort ordenacaoPadrao, String chave) {
+        if (!ordenacao.equals(ordenacaoPadrao)) {
+            throw new OrdenacaoCursorInvalidaException(chave);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.mballem.demoparkapi.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom thread-safe para conjuntos de strings.
+ * Responde se um valor certamente não foi adicionado ou se talvez tenha sido, com uma taxa de falsos positivos
+ * próxima da configurada enquanto a quantidade de valores adicionados não ultrapassar a capacidade.
+ * Valores não podem ser removidos: para descartar valores, crie um novo filtro.
+ */
+public class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long tamanho;
+    private final int funcoes;
+
+    /**
+     * @param capacidade          Quantidade esperada de valores
+     * @param taxaFalsosPositivos Taxa de falsos positivos desejada na capacidade, entre 0 e 1
+     */
+    public FiltroBloom(int capacidade, double taxaFalsosPositivos) {
+        if (capacidade <= 0 || taxaFalsosPositivos <= 0 || taxaFalsosPositivos >= 1) {
+            throw new IllegalArgumentException("Capacidade deve ser positiva e a taxa de falsos positivos deve estar entre 0 e 1");
+        }
+        long bitsNecessarios = (long) Math.ceil(-capacidade * Math.log(taxaFalsosPositivos) / (Math.log(2) * Math.log(2)));
+        int palavras = (int) ((bitsNecessarios + 63) / 64);
+        this.bits = new AtomicLongArray(palavras);
+        this.tamanho = (long) palavras * 64;
+        this.funcoes = Math.max(1, (int) Math.round((double) tamanho / capacidade * Math.log(2)));
+    }
+
+    /**
+     * Adiciona um valor ao filtro.
+     *
+     * @param valor Valor a ser adicionado
+     */
+    public void adicionar(String valor) {
+        long h1 = hash(valor);
+        long h2 = misturar(h1) | 1; // Ímpar, para percorrer posições distintas
+        for (int i = 0; i < funcoes; i++) {
+            long posicao = Math.floorMod(h1 + i * h2, tamanho);
+            int palavra = (int) (posicao >>> 6);
+            long mascara = 1L << posicao;
+            long atual;
+            do {
+                atual = bits.get(palavra);
+            } while ((atual & mascara) == 0 && !bits.compareAndSet(palavra, atual, atual | mascara));
+        }
+    }
+
+    /**
+     * Verifica se um valor pode ter sido adicionado ao filtro.
+     *
+     * @param valor Valor a ser verificado
+     * @return false se o valor certamente não foi adicionado, true se talvez tenha sido
+     */
+    public boolean talvezContenha(String valor) {
+        long h1 = hash(valor);
+        long h2 = misturar(h1) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            long posicao = Math.floorMod(h1 + i * h2, tamanho);
+            if ((bits.get((int) (posicao >>> 6)) & (1L << posicao)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Hash de 64 bits (FNV-1a) dos caracteres do valor, com mistura final para espalhar os bits
+    private static long hash(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            h ^= valor.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return misturar(h);
+    }
+
+    // Função de mistura do SplitMix64
+    private static long misturar(long h) {
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
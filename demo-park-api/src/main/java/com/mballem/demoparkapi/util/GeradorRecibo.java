@@ -0,0 +1,75 @@
+package com.mballem.demoparkapi.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gerador de números de recibo únicos entre threads e entre instâncias da aplicação.
+ * Cada recibo é um identificador de 63 bits composto por:
+ * 41 bits de milissegundos desde 2024-01-01, 10 bits do número do nó e 12 bits de sequência.
+ * O identificador é escrito em base 36 com 13 caracteres fixos, de modo que a ordem alfabética dos recibos
+ * corresponde à ordem em que foram gerados.
+ */
+@Component
+public class GeradorRecibo {
+
+    // Início da contagem de tempo dos recibos: 2024-01-01T00:00:00Z
+    private static final long EPOCA = 1704067200000L;
+    private static final int TAMANHO = 13;
+
+    private static final int BITS_SEQUENCIA = 12;
+    private static final int BITS_NO = 10;
+    private static final long MASCARA_SEQUENCIA = (1L << BITS_SEQUENCIA) - 1;
+    private static final int MAXIMO_NO = (1 << BITS_NO) - 1;
+    private static final char[] DIGITOS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    // Buffer reutilizado por thread para escrever o recibo sem objetos intermediários
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[TAMANHO]);
+
+    private final long no;
+
+    // Último instante e sequência gerados, no formato (milissegundos << 12 | sequência)
+    private final AtomicLong ultimo = new AtomicLong();
+
+    /**
+     * @param no Número do nó (0 a 1023), único para cada instância da aplicação
+     */
+    public GeradorRecibo(@Value("${demo-park.recibo.no:0}") int no) {
+        if (no < 0 || no > MAXIMO_NO) {
+            throw new IllegalArgumentException("Número do nó do recibo deve estar entre 0 e " + MAXIMO_NO);
+        }
+        this.no = no;
+    }
+
+    /**
+     * Gera um novo número de recibo.
+     * Quando a sequência de um milissegundo se esgota, ou o relógio volta no tempo, o instante usado
+     * avança a partir do último recibo gerado, o que mantém a unicidade sem bloquear a thread.
+     *
+     * @return Número de recibo com 13 caracteres
+     */
+    public String gerar() {
+        long agora = (System.currentTimeMillis() - EPOCA) << BITS_SEQUENCIA;
+        long anterior;
+        long proximo;
+        do {
+            anterior = ultimo.get();
+            proximo = Math.max(agora, anterior + 1);
+        } while (!ultimo.compareAndSet(anterior, proximo));
+
+        long instante = proximo >>> BITS_SEQUENCIA;
+        long id = (instante << (BITS_NO + BITS_SEQUENCIA)) | (no << BITS_SEQUENCIA) | (proximo & MASCARA_SEQUENCIA);
+        return formatar(id);
+    }
+
+    private static String formatar(long id) {
+        char[] buffer = BUFFER.get();
+        for (int i = TAMANHO - 1; i >= 0; i--) {
+            buffer[i] = DIGITOS[(int) (id % 36)];
+            id /= 36;
+        }
+        return new String(buffer);
+    }
+}
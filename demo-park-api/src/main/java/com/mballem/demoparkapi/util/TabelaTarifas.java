@@ -0,0 +1,109 @@
+package com.mballem.demoparkapi.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Tabela de tarifas do estacionamento.
+ * Todos os cálculos são feitos em centavos com aritmética de long, sem criar objetos;
+ * a conversão para BigDecimal acontece somente ao gravar os valores no registro, com {@link #toReais(long)}.
+ */
+@Component
+public class TabelaTarifas {
+
+    // O desconto é aplicado a cada décima vez que o cliente utiliza o estacionamento
+    private static final long ESTACIONAMENTOS_PARA_DESCONTO = 10;
+
+    private final long primeiros15Minutos;
+    private final long primeiros60Minutos;
+    private final long adicional15Minutos;
+    private final long descontoPercentual;
+
+    /**
+     * @param primeiros15Minutos Valor cobrado até 15 minutos, em reais
+     * @param primeiros60Minutos Valor cobrado até 60 minutos, em reais
+     * @param adicional15Minutos Valor cobrado por fração de 15 minutos após a primeira hora, em reais
+     * @param descontoPercentual Percentual de desconto aplicado a cada décima utilização
+     */
+    public TabelaTarifas(@Value("${demo-park.tarifas.primeiros-15-minutos:5.00}") BigDecimal primeiros15Minutos,
+                         @Value("${demo-park.tarifas.primeiros-60-minutos:9.25}") BigDecimal primeiros60Minutos,
+                         @Value("${demo-park.tarifas.adicional-15-minutos:1.75}") BigDecimal adicional15Minutos,
+                         @Value("${demo-park.tarifas.desconto-percentual:30}") int descontoPercentual) {
+        if (descontoPercentual < 0 || descontoPercentual > 100) {
+            throw new IllegalArgumentException("Percentual de desconto deve estar entre 0 e 100");
+        }
+        this.primeiros15Minutos = toCentavos(primeiros15Minutos);
+        this.primeiros60Minutos = toCentavos(primeiros60Minutos);
+        this.adicional15Minutos = toCentavos(adicional15Minutos);
+        this.descontoPercentual = descontoPercentual;
+    }
+
+    /**
+     * Calcula o custo de estacionamento com base no tempo de entrada e saída.
+     *
+     * @param entrada Data e hora de entrada no estacionamento
+     * @param saida   Data e hora de saída do estacionamento
+     * @return Custo em centavos
+     */
+    public long calcularCusto(LocalDateTime entrada, LocalDateTime saida) {
+        return calcularCusto(entrada.until(saida, ChronoUnit.MINUTES));
+    }
+
+    /**
+     * Calcula o custo de estacionamento para uma permanência em minutos.
+     * Após a primeira hora, cada fração iniciada de 15 minutos é cobrada integralmente.
+     *
+     * @param minutos Tempo de permanência em minutos
+     * @return Custo em centavos
+     */
+    public long calcularCusto(long minutos) {
+        if (minutos <= 15) {
+            return primeiros15Minutos;
+        }
+        if (minutos <= 60) {
+            return primeiros60Minutos;
+        }
+        long fracoes = (minutos - 60 + 14) / 15; // Arredonda para cima as frações de 15 minutos
+        return primeiros60Minutos + adicional15Minutos * fracoes;
+    }
+
+    /**
+     * Calcula o desconto aplicado ao custo de estacionamento.
+     * O desconto é aplicado a cada décima vez que o cliente utiliza o estacionamento.
+     * Frações de centavo são arredondadas para o centavo mais próximo e os empates para baixo,
+     * reproduzindo o cálculo anterior feito com o double 0.30 (ligeiramente menor que 0,3).
+     *
+     * @param custo         Custo em centavos
+     * @param numeroDeVezes Número de vezes que o cliente utilizou o estacionamento
+     * @return Desconto em centavos
+     */
+    public long calcularDesconto(long custo, long numeroDeVezes) {
+        if (numeroDeVezes <= 0 || numeroDeVezes % ESTACIONAMENTOS_PARA_DESCONTO != 0) {
+            return 0;
+        }
+        long total = custo * descontoPercentual;
+        long desconto = total / 100;
+        return total % 100 > 50 ? desconto + 1 : desconto;
+    }
+
+    /**
+     * Converte um valor em centavos para reais, com duas casas decimais.
+     *
+     * @param centavos Valor em centavos
+     * @return Valor em reais
+     */
+    public static BigDecimal toReais(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    private static long toCentavos(BigDecimal reais) {
+        if (reais.signum() < 0) {
+            throw new IllegalArgumentException("Tarifa não pode ser negativa: " + reais);
+        }
+        return reais.movePointRight(2).longValueExact();
+    }
+}
@@ -0,0 +1,47 @@
+package com.mballem.demoparkapi.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class TransacaoUtils {
+
+    /**
+     * Método estático para executar uma ação somente após o commit da transação corrente.
+     * Se não houver transação ativa, a ação é executada imediatamente.
+     * @param acao Ação a ser executada após o commit.
+     */
+    public static void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    /**
+     * Método estático para executar uma ação somente se a transação corrente for desfeita (rollback).
+     * Se não houver transação ativa, nada é registrado.
+     * @param acao Ação a ser executada após o rollback.
+     */
+    public static void aposRollback(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    acao.run();
+                }
+            }
+        });
+    }
+}
@@ -1,8 +1,10 @@
 package com.mballem.demoparkapi.web.controller;
 
+import com.mballem.demoparkapi.exception.AutenticacaoSobrecarregadaException;
 import com.mballem.demoparkapi.exception.InvalidCredencialException;
+import com.mballem.demoparkapi.exception.TokenRefreshInvalidoException;
 import com.mballem.demoparkapi.jwt.JwtToken;
-import com.mballem.demoparkapi.jwt.JwtUserDetailsService;
+import com.mballem.demoparkapi.service.AutenticacaoService;
 import com.mballem.demoparkapi.web.dto.UsuarioLoginDto;
 import com.mballem.demoparkapi.web.dto.UsuarioResponseDto;
 import com.mballem.demoparkapi.web.exception.ErrorMessage;
@@ -10,21 +12,23 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @Tag(name = "Autenticação", description = "Recurso para proceder com a autenticação na API")
 @Slf4j
 @RequiredArgsConstructor
@@ -32,16 +36,16 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/v1")
 public class AutenticacaoController {
 
-    private final JwtUserDetailsService detailsService;
-    private final AuthenticationManager authenticationManager;
+    private final AutenticacaoService autenticacaoService;
 
     /**
      * Endpoint para autenticar um usuário na API.
      *
      * @param dto     DTO com as credenciais de login do usuário
      * @param request HttpServletRequest para acessar informações da requisição
-     * @return ResponseEntity contendo o token JWT se a autenticação for bem-sucedida
-     * @throws InvalidCredencialException se as credenciais forem inválidas
+     * @return CompletableFuture com o ResponseEntity contendo o token JWT se a autenticação for bem-sucedida
+     * @throws InvalidCredencialException          se as credenciais forem inválidas
+     * @throws AutenticacaoSobrecarregadaException se o pool de autenticação estiver saturado
      */
     @Operation(summary = "Autenticar na API", description = "Recurso de autenticação na API",
             responses = {
@@ -50,28 +54,55 @@ public class AutenticacaoController {
                     @ApiResponse(responseCode = "400", description = "Credenciais inválidas",
                             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
                     @ApiResponse(responseCode = "422", description = "Campo(s) Inválido(s)",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "429", description = "Muitas autenticações simultâneas, tente novamente após o tempo informado em Retry-After",
                             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
             })
     @PostMapping(path = "/auth", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> autenticar(@RequestBody @Valid UsuarioLoginDto dto, HttpServletRequest request) {
+    public CompletableFuture<ResponseEntity<JwtToken>> autenticar(@RequestBody @Valid UsuarioLoginDto dto, HttpServletRequest request) {
         log.info("Processo de autenticação pelo login {}", dto.getUsername());
-        try {
-            // Cria um token de autenticação com as credenciais fornecidas
-            UsernamePasswordAuthenticationToken authenticationToken =
-                    new UsernamePasswordAuthenticationToken(dto.getUsername(), dto.getPassword());
-
-            // Realiza a autenticação usando o AuthenticationManager
-            authenticationManager.authenticate(authenticationToken);
+        // A verificação da senha é feita no pool de autenticação, liberando a thread da requisição
+        return autenticacaoService.autenticar(dto.getUsername(), dto.getPassword())
+                .thenApply(ResponseEntity::ok);
+    }
 
-            // Gera e retorna um token JWT se a autenticação for bem-sucedida
-            JwtToken token = detailsService.getTokenAuthenticated(dto.getUsername());
+    /**
+     * Endpoint para renovar um token JWT sem reenviar as credenciais.
+     *
+     * @param dto DTO com o token a ser renovado, ainda válido ou expirado há pouco tempo
+     * @return ResponseEntity contendo o novo token JWT
+     * @throws TokenRefreshInvalidoException se o token for inválido, tiver expirado além da tolerância ou já tiver sido renovado
+     */
+    @Operation(summary = "Renovar o token", description = "Recurso para trocar um token válido ou expirado há pouco tempo por um novo token. " +
+            "Cada token pode ser renovado uma única vez.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Token renovado com sucesso",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = JwtToken.class))),
+                    @ApiResponse(responseCode = "401", description = "Token inválido, expirado ou já renovado",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @PostMapping(path = "/auth/refresh", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<JwtToken> renovar(@RequestBody JwtToken dto) {
+        return ResponseEntity.ok(autenticacaoService.renovar(dto.getToken()));
+    }
 
-            return ResponseEntity.ok(token);
-        } catch (AuthenticationException ex) {
-            // Loga um aviso de credenciais inválidas
-            log.warn("Bad Credentials from username '{}'", dto.getUsername());
-            // Lança uma exceção personalizada para indicar credenciais inválidas
-            throw new InvalidCredencialException(dto.getUsername());
-        }
+    /**
+     * Endpoint para encerrar a sessão, revogando o token usado na requisição.
+     *
+     * @param authorization Cabeçalho Authorization com o token JWT
+     * @return ResponseEntity sem conteúdo
+     */
+    @Operation(summary = "Encerrar a sessão", description = "Recurso para revogar o token usado na requisição. " +
+            "Requisição exige um Bearer Token.",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Token revogado com sucesso"),
+                    @ApiResponse(responseCode = "401", description = "Token ausente, inválido ou já revogado",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @PostMapping(path = "/auth/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        autenticacaoService.revogar(authorization);
+        return ResponseEntity.noContent().build();
     }
 }
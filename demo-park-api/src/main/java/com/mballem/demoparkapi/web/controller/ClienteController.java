@@ -5,10 +5,13 @@ import com.mballem.demoparkapi.jwt.JwtUserDetails;
 import com.mballem.demoparkapi.repository.projection.ClienteProjection;
 import com.mballem.demoparkapi.service.ClienteService;
 import com.mballem.demoparkapi.service.UsuarioService;
+import com.mballem.demoparkapi.util.CursorUtils;
 import com.mballem.demoparkapi.web.dto.ClienteCreateDto;
 import com.mballem.demoparkapi.web.dto.ClienteResponseDto;
-import com.mballem.demoparkapi.web.dto.PageableDto;
+import com.mballem.demoparkapi.web.dto.CursorPageDto;
+import com.mballem.demoparkapi.web.dto.PaginaDto;
 import com.mballem.demoparkapi.web.dto.mapper.ClienteMapper;
+import com.mballem.demoparkapi.web.dto.mapper.CursorPageMapper;
 import com.mballem.demoparkapi.web.dto.mapper.PageableMapper;
 import com.mballem.demoparkapi.web.exception.ErrorMessage;
 import io.swagger.v3.oas.annotations.Operation;
@@ -23,12 +26,15 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 import static io.swagger.v3.oas.annotations.enums.ParameterIn.QUERY;
 
 @Tag(name = "Clientes", description = "Contém todas as opereções relativas ao recurso de um cliente")
@@ -103,9 +109,13 @@ public class ClienteController {
 
     /**
      * Endpoint para obter uma lista paginada de clientes.
+     * Com o parâmetro after, a paginação é feita por keyset sobre (nome, id) e o total só é contado se solicitado;
+     * nesse modo, uma ordenação diferente da padrão é recusada.
      *
      * @param pageable informações de paginação (opcional)
-     * @return ResponseEntity com a lista de clientes paginada e código 200 se encontrada
+     * @param after    cursor da próxima página, vazio para a primeira página da paginação por keyset (opcional)
+     * @param count    se o total de clientes deve ser contado na paginação por keyset (opcional)
+     * @return ResponseEntity com a lista de clientes paginada (PageableDto ou CursorPageDto) e código 200 se encontrada
      */
     @Operation(summary = "Recuperar lista de clientes",
             description = "Requisição exige uso de um bearer token. Acesso restrito a Role='ADMIN' ",
@@ -121,12 +131,24 @@ public class ClienteController {
                     ),
                     @Parameter(in = QUERY, name = "sort", hidden = true,
                             array = @ArraySchema(schema = @Schema(type = "string", defaultValue = "nome,asc")),
-                            description = "Representa a ordenação dos resultados. Aceita multiplos critérios de ordenação são suportados.")
+                            description = "Representa a ordenação dos resultados. Aceita multiplos critérios de ordenação são suportados. " +
+                                    "Não pode ser combinado com after, cuja ordenação é sempre (nome, id)."),
+                    @Parameter(in = QUERY, name = "after",
+                            content = @Content(schema = @Schema(type = "string")),
+                            description = "Ativa a paginação por cursor: vazio para a primeira página ou o campo 'next' da página anterior. " +
+                                    "Um sort diferente do padrão é recusado com status 400"),
+                    @Parameter(in = QUERY, name = "count",
+                            content = @Content(schema = @Schema(type = "boolean", defaultValue = "false")),
+                            description = "Na paginação por cursor, inclui o total de elementos na resposta")
             },
             responses = {
                     @ApiResponse(responseCode = "200", description = "Recurso recuperado com sucesso",
                             content = @Content(mediaType = " application/json;charset=UTF-8",
-                                    schema = @Schema(implementation = PageableDto.class))
+                                    schema = @Schema(implementation = PaginaDto.class))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Cursor inválido ou ordenação informada junto com o cursor",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class))
                     ),
                     @ApiResponse(responseCode = "403", description = "Recurso não permito ao perfil de CLIENTE",
                             content = @Content(mediaType = " application/json;charset=UTF-8",
@@ -135,8 +157,24 @@ public class ClienteController {
             })
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<PageableDto> getAll(@Parameter(hidden = true)
-                                              @PageableDefault(size = 5, sort = {"nome"}) Pageable pageable) {
+    public ResponseEntity<PaginaDto> getAll(@Parameter(hidden = true)
+                                            @PageableDefault(size = 5, sort = {"nome"}) Pageable pageable,
+                                            @Parameter(hidden = true) @RequestParam(required = false) String after,
+                                            @Parameter(hidden = true) @RequestParam(defaultValue = "false") boolean count) {
+        if (after != null) {
+            // Paginação por keyset: a ordenação é sempre (nome, id)
+            CursorUtils.validarOrdenacao(pageable.getSort(), Sort.by("nome"), "nome, id");
+            int size = pageable.getPageSize();
+            ChaveCliente apos = after.isEmpty() ? new ChaveCliente(null, null)
+                    : CursorUtils.decodificar(after, valores -> new ChaveCliente(valores[0], Long.valueOf(valores[1])));
+            List<ClienteProjection> clientes = clienteService.buscarTodos(apos.nome(), apos.id(), size + 1);
+            CursorPageDto dto = CursorPageMapper.toDto(clientes, size,
+                    cliente -> CursorUtils.codificar(cliente.nome(), cliente.id()), cliente -> cliente);
+            if (count) {
+                dto.setTotalElements(clienteService.contarTodos());
+            }
+            return ResponseEntity.ok(dto);
+        }
         // Busca todos os clientes de forma paginada
         Page<ClienteProjection> clientes = clienteService.buscarTodos(pageable);
         // Retorna a lista de clientes paginada com status 200
@@ -170,4 +208,8 @@ public class ClienteController {
         // Retorna os detalhes do cliente encontrado com status 200
         return ResponseEntity.ok(ClienteMapper.toDto(cliente));
     }
+
+    // Chave (nome, id) do último cliente da página anterior, na paginação por keyset
+    private record ChaveCliente(String nome, Long id) {
+    }
 }
@@ -0,0 +1,52 @@
+package com.mballem.demoparkapi.web.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escreve objetos diretamente no corpo da resposta como JSON delimitado por quebras de linha (NDJSON),
+ * um objeto por linha, à medida que são produzidos. Somente o buffer de saída é mantido em memória.
+ */
+class EscritorNdjson implements Closeable {
+
+    private static final int TAMANHO_BUFFER = 8192;
+
+    private final ObjectWriter writer;
+    private final OutputStream saida;
+
+    EscritorNdjson(ObjectMapper objectMapper, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        this.writer = objectMapper.writer();
+        this.saida = new BufferedOutputStream(response.getOutputStream(), TAMANHO_BUFFER);
+    }
+
+    /**
+     * Escreve um objeto como uma linha JSON.
+     *
+     * @param valor Objeto a ser escrito
+     * @throws UncheckedIOException se a escrita falhar, por exemplo quando o cliente encerra a conexão
+     */
+    void escrever(Object valor) {
+        try {
+            saida.write(writer.writeValueAsBytes(valor));
+            saida.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        saida.flush();
+    }
+}
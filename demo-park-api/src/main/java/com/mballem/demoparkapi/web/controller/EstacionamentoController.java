@@ -1,16 +1,29 @@
 package com.mballem.demoparkapi.web.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mballem.demoparkapi.entity.ClienteVaga;
+import com.mballem.demoparkapi.exception.EntityNotFoundException;
+import com.mballem.demoparkapi.exception.LoteInvalidoException;
+import com.mballem.demoparkapi.exception.ReciboCheckInNotFoundException;
+import com.mballem.demoparkapi.exception.VagaDisponivelException;
 import com.mballem.demoparkapi.jwt.JwtUserDetails;
 import com.mballem.demoparkapi.repository.projection.ClienteVagaProjection;
 import com.mballem.demoparkapi.service.ClienteService;
 import com.mballem.demoparkapi.service.ClienteVagaService;
+import com.mballem.demoparkapi.service.EscritorCheckIn;
 import com.mballem.demoparkapi.service.EstacionamentoService;
 import com.mballem.demoparkapi.service.JasperService;
+import com.mballem.demoparkapi.service.ResultadoLote;
+import com.mballem.demoparkapi.service.TicketAberto;
+import com.mballem.demoparkapi.util.CursorUtils;
+import com.mballem.demoparkapi.web.dto.CursorPageDto;
 import com.mballem.demoparkapi.web.dto.EstacionamentoCreateDto;
+import com.mballem.demoparkapi.web.dto.EstacionamentoLoteResponseDto;
 import com.mballem.demoparkapi.web.dto.EstacionamentoResponseDto;
 import com.mballem.demoparkapi.web.dto.PageableDto;
+import com.mballem.demoparkapi.web.dto.PaginaDto;
 import com.mballem.demoparkapi.web.dto.mapper.ClienteVagaMapper;
+import com.mballem.demoparkapi.web.dto.mapper.CursorPageMapper;
 import com.mballem.demoparkapi.web.dto.mapper.PageableMapper;
 import com.mballem.demoparkapi.web.exception.ErrorMessage;
 import io.swagger.v3.oas.annotations.Operation;
@@ -22,23 +35,37 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.Validation;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.io.IOException;
 import java.net.URI;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static io.swagger.v3.oas.annotations.enums.ParameterIn.PATH;
 import static io.swagger.v3.oas.annotations.enums.ParameterIn.QUERY;
@@ -56,6 +83,16 @@ public class EstacionamentoController {
     private final ClienteVagaService clienteVagaService;
     private final ClienteService clienteService;
     private final JasperService jasperService;
+    private final EscritorCheckIn escritorCheckIn;
+    private final MessageSource messageSource;
+    private final ObjectMapper objectMapper;
+
+    // Validador usado nos itens dos lotes, que não passam pela validação automática do @Valid
+    private static final SpringValidatorAdapter VALIDATOR =
+            new SpringValidatorAdapter(Validation.buildDefaultValidatorFactory().getValidator());
+
+    @Value("${demo-park.estacionamentos.lote.tamanho-maximo:100}")
+    private int tamanhoMaximoDoLote;
 
     /**
      * Endpoint para realizar o check-in de um veículo no estacionamento.
@@ -96,6 +133,63 @@ public class EstacionamentoController {
         return ResponseEntity.created(location).body(responseDto);
     }
 
+    /**
+     * Endpoint para realizar o check-in de vários veículos no estacionamento em uma única requisição.
+     *
+     * @param dtos    Dados de entrada dos veículos para check-in
+     * @param request HttpServletRequest usado na montagem das mensagens de erro
+     * @return ResponseEntity com o resultado do check-in de cada veículo, na ordem recebida
+     */
+    @Operation(summary = "Operação de check-in em lote", description = "Recurso para dar entrada de vários veículos " +
+            "no estacionamento. Cada veículo é processado individualmente e a resposta informa o sucesso ou a falha " +
+            "de cada item. Requisição exige uso de um bearer token. Acesso restrito a Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Lote processado com sucesso",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    array = @ArraySchema(schema = @Schema(implementation = EstacionamentoLoteResponseDto.class)))),
+                    @ApiResponse(responseCode = "422", description = "Lote vazio ou maior que o tamanho máximo permitido",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "403", description = "Recurso não permito ao perfil de CLIENTE",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @PostMapping("/check-in/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<EstacionamentoLoteResponseDto>> checkinEmLote(@RequestBody List<EstacionamentoCreateDto> dtos,
+                                                                             HttpServletRequest request) {
+        if (dtos.isEmpty() || dtos.size() > tamanhoMaximoDoLote) {
+            throw new LoteInvalidoException(tamanhoMaximoDoLote);
+        }
+
+        EstacionamentoLoteResponseDto[] respostas = new EstacionamentoLoteResponseDto[dtos.size()];
+        List<Integer> indices = new ArrayList<>(dtos.size());
+        List<ClienteVaga> registros = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            EstacionamentoCreateDto dto = dtos.get(i);
+            BindingResult result = new BeanPropertyBindingResult(dto, "estacionamentoCreateDto");
+            VALIDATOR.validate(dto, result);
+            if (result.hasErrors()) {
+                ErrorMessage erro = new ErrorMessage(request, HttpStatus.UNPROCESSABLE_ENTITY,
+                        messageSource.getMessage("message.invalid.field", null, request.getLocale()),
+                        result, messageSource);
+                respostas[i] = new EstacionamentoLoteResponseDto(i, null, erro);
+                continue;
+            }
+            indices.add(i);
+            registros.add(ClienteVagaMapper.toClienteVaga(dto));
+        }
+
+        if (!registros.isEmpty()) {
+            List<ResultadoLote<ClienteVaga>> resultados = estacionamentoService.checkInEmLote(registros);
+            for (int i = 0; i < resultados.size(); i++) {
+                respostas[indices.get(i)] = toLoteResponseDto(indices.get(i), resultados.get(i), request);
+            }
+        }
+        return ResponseEntity.ok(List.of(respostas));
+    }
+
     /**
      * Endpoint para localizar um veículo estacionado pelo número do recibo.
      *
@@ -119,8 +213,8 @@ public class EstacionamentoController {
     @GetMapping("/check-in/{recibo}")
     @PreAuthorize("hasAnyRole('ADMIN', 'CLIENTE')")
     public ResponseEntity<EstacionamentoResponseDto> getByRecibo(@PathVariable String recibo) {
-        ClienteVaga clienteVaga = clienteVagaService.buscarPorRecibo(recibo);
-        EstacionamentoResponseDto dto = ClienteVagaMapper.toDto(clienteVaga);
+        TicketAberto ticket = clienteVagaService.buscarTicketAbertoPorRecibo(recibo);
+        EstacionamentoResponseDto dto = ClienteVagaMapper.toDto(ticket);
         return ResponseEntity.ok(dto);
     }
 
@@ -151,17 +245,60 @@ public class EstacionamentoController {
     @PutMapping("/check-out/{recibo}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<EstacionamentoResponseDto> checkout(@PathVariable String recibo) {
+        escritorCheckIn.persistirSePendente(List.of(recibo)); // Grava o check-in, se ainda pendente, fora da transação do check-out
         ClienteVaga clienteVaga = estacionamentoService.checkOut(recibo);
         EstacionamentoResponseDto dto = ClienteVagaMapper.toDto(clienteVaga);
         return ResponseEntity.ok(dto);
     }
 
+    /**
+     * Endpoint para realizar o check-out de vários veículos do estacionamento em uma única requisição.
+     *
+     * @param recibos Números dos recibos gerados pelo check-in
+     * @param request HttpServletRequest usado na montagem das mensagens de erro
+     * @return ResponseEntity com o resultado do check-out de cada recibo, na ordem recebida
+     */
+    @Operation(summary = "Operação de check-out em lote", description = "Recurso para dar saída de vários veículos " +
+            "do estacionamento. Cada recibo é processado individualmente e a resposta informa o sucesso ou a falha " +
+            "de cada item. Requisição exige uso de um bearer token. Acesso restrito a Role='ADMIN'",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Lote processado com sucesso",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    array = @ArraySchema(schema = @Schema(implementation = EstacionamentoLoteResponseDto.class)))),
+                    @ApiResponse(responseCode = "422", description = "Lote vazio ou maior que o tamanho máximo permitido",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class))),
+                    @ApiResponse(responseCode = "403", description = "Recurso não permito ao perfil de CLIENTE",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @PutMapping("/check-out/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<EstacionamentoLoteResponseDto>> checkoutEmLote(@RequestBody List<String> recibos,
+                                                                              HttpServletRequest request) {
+        if (recibos.isEmpty() || recibos.size() > tamanhoMaximoDoLote) {
+            throw new LoteInvalidoException(tamanhoMaximoDoLote);
+        }
+
+        escritorCheckIn.persistirSePendente(recibos); // Grava os check-ins, se ainda pendentes, fora da transação do check-out
+        List<ResultadoLote<ClienteVaga>> resultados = estacionamentoService.checkOutEmLote(recibos);
+        List<EstacionamentoLoteResponseDto> respostas = new ArrayList<>(resultados.size());
+        for (int i = 0; i < resultados.size(); i++) {
+            respostas.add(toLoteResponseDto(i, resultados.get(i), request));
+        }
+        return ResponseEntity.ok(respostas);
+    }
+
     /**
      * Endpoint para localizar os registros de estacionamentos de um cliente por CPF.
+     * Com o parâmetro after, a paginação é feita por keyset sobre (dataEntrada, id) e o total só é contado se solicitado.
      *
      * @param cpf      CPF do cliente
      * @param pageable Objeto de paginação
-     * @return ResponseEntity com um DTO paginado dos registros de estacionamentos
+     * @param after    Cursor da próxima página, vazio para a primeira página da paginação por keyset
+     * @param count    Se o total de registros deve ser contado na paginação por keyset
+     * @return ResponseEntity com um DTO paginado (PageableDto ou CursorPageDto) dos registros de estacionamentos
      */
     @Operation(summary = "Localizar os registros de estacionamentos do cliente por CPF", description = "Localizar os " +
             "registros de estacionamentos do cliente por CPF. Requisição exige uso de um bearer token.",
@@ -176,35 +313,136 @@ public class EstacionamentoController {
                     @Parameter(in = QUERY, name = "size", description = "Representa o total de elementos por página",
                             content = @Content(schema = @Schema(type = "integer", defaultValue = "5"))
                     ),
-                    @Parameter(in = QUERY, name = "sort", description = "Campo padrão de ordenação 'dataEntrada,asc'. ",
+                    @Parameter(in = QUERY, name = "sort", description = "Campo padrão de ordenação 'dataEntrada,asc'. " +
+                                    "Não pode ser combinado com after, cuja ordenação é sempre (dataEntrada, id).",
                             array = @ArraySchema(schema = @Schema(type = "string", defaultValue = "dataEntrada,asc")),
                             hidden = true
+                    ),
+                    @Parameter(in = QUERY, name = "after",
+                            content = @Content(schema = @Schema(type = "string")),
+                            description = "Ativa a paginação por cursor: vazio para a primeira página ou o campo 'next' da página anterior. " +
+                                    "Um sort diferente do padrão é recusado com status 400"
+                    ),
+                    @Parameter(in = QUERY, name = "count",
+                            content = @Content(schema = @Schema(type = "boolean", defaultValue = "false")),
+                            description = "Na paginação por cursor, inclui o total de elementos na resposta"
                     )
             },
             responses = {
                     @ApiResponse(responseCode = "200", description = "Recurso localizado com sucesso",
                             content = @Content(mediaType = " application/json;charset=UTF-8",
-                                    schema = @Schema(implementation = PageableDto.class))),
+                                    schema = @Schema(implementation = PaginaDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Cursor inválido ou ordenação informada junto com o cursor",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class))),
                     @ApiResponse(responseCode = "403", description = "Recurso não permito ao perfil de CLIENTE",
                             content = @Content(mediaType = " application/json;charset=UTF-8",
                                     schema = @Schema(implementation = ErrorMessage.class)))
             })
     @GetMapping("/cpf/{cpf}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<PageableDto> getAllEstacionamentosPorCpf(@PathVariable String cpf, @Parameter(hidden = true)
+    public ResponseEntity<PaginaDto> getAllEstacionamentosPorCpf(@PathVariable String cpf, @Parameter(hidden = true)
     @PageableDefault(size = 5, sort = "dataEntrada",
-            direction = Sort.Direction.ASC) Pageable pageable) {
+            direction = Sort.Direction.ASC) Pageable pageable,
+    @Parameter(hidden = true) @RequestParam(required = false) String after,
+    @Parameter(hidden = true) @RequestParam(defaultValue = "false") boolean count) {
+        if (after != null) {
+            int size = pageable.getPageSize();
+            ChaveEntrada apos = ChaveEntrada.de(after, pageable.getSort());
+            List<ClienteVagaProjection> registros = clienteVagaService.buscarTodosPorClienteCpf(
+                    cpf, apos.dataEntrada(), apos.id(), size + 1);
+            CursorPageDto dto = toCursorPageDto(registros, size);
+            if (count) {
+                dto.setTotalElements(clienteVagaService.contarPorClienteCpf(cpf));
+            }
+            return ResponseEntity.ok(dto);
+        }
         Page<ClienteVagaProjection> projection = clienteVagaService.buscarTodosPorClienteCpf(cpf, pageable);
         PageableDto dto = PageableMapper.toDto(projection);
         return ResponseEntity.ok(dto);
     }
 
+    /**
+     * Endpoint para exportar todos os registros de estacionamentos de um cliente por CPF como JSON delimitado
+     * por quebras de linha. Os registros são escritos na resposta à medida que são lidos do banco de dados.
+     *
+     * @param cpf      CPF do cliente
+     * @param response HttpServletResponse para escrever os registros
+     * @throws IOException Exceção em caso de erro de IO
+     */
+    @Operation(summary = "Exportar os registros de estacionamentos do cliente por CPF", description = "Exportar todos os " +
+            "registros de estacionamentos do cliente por CPF, um por linha, em ordem de entrada. " +
+            "Requisição exige uso de um bearer token.",
+            security = @SecurityRequirement(name = "security"),
+            parameters = {
+                    @Parameter(in = PATH, name = "cpf", description = "Nº do CPF referente ao cliente a ser consultado",
+                            required = true
+                    )
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Registros exportados com sucesso",
+                            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                    schema = @Schema(implementation = ClienteVagaProjection.class))),
+                    @ApiResponse(responseCode = "403", description = "Recurso não permito ao perfil de CLIENTE",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @GetMapping("/cpf/{cpf}/exportar")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportarEstacionamentosPorCpf(@PathVariable String cpf, HttpServletResponse response) throws IOException {
+        try (EscritorNdjson escritor = new EscritorNdjson(objectMapper, response)) {
+            clienteVagaService.percorrerTodosPorClienteCpf(cpf, escritor::escrever);
+        }
+    }
+
+    /**
+     * Endpoint para exportar todos os registros de estacionamentos com entrada em um período como JSON delimitado
+     * por quebras de linha. Os registros são escritos na resposta à medida que são lidos do banco de dados.
+     *
+     * @param inicio   Primeiro dia do período
+     * @param fim      Último dia do período, inclusive
+     * @param response HttpServletResponse para escrever os registros
+     * @throws IOException Exceção em caso de erro de IO
+     */
+    @Operation(summary = "Exportar os registros de estacionamentos por período", description = "Exportar os registros " +
+            "de estacionamentos de todos os clientes com entrada no período, um por linha, em ordem de entrada. " +
+            "Requisição exige uso de um bearer token.",
+            security = @SecurityRequirement(name = "security"),
+            parameters = {
+                    @Parameter(in = QUERY, name = "inicio", description = "Primeiro dia do período (yyyy-MM-dd)",
+                            required = true, content = @Content(schema = @Schema(type = "string", format = "date"))
+                    ),
+                    @Parameter(in = QUERY, name = "fim", description = "Último dia do período, inclusive (yyyy-MM-dd)",
+                            required = true, content = @Content(schema = @Schema(type = "string", format = "date"))
+                    )
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Registros exportados com sucesso",
+                            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                    schema = @Schema(implementation = ClienteVagaProjection.class))),
+                    @ApiResponse(responseCode = "403", description = "Recurso não permito ao perfil de CLIENTE",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @GetMapping("/exportar")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportarEstacionamentosPorPeriodo(@Parameter(hidden = true) @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+                                                  @Parameter(hidden = true) @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+                                                  HttpServletResponse response) throws IOException {
+        try (EscritorNdjson escritor = new EscritorNdjson(objectMapper, response)) {
+            clienteVagaService.percorrerTodosPorPeriodo(inicio, fim, escritor::escrever);
+        }
+    }
+
     /**
      * Endpoint para localizar os registros de estacionamentos do cliente logado.
+     * Com o parâmetro after, a paginação é feita por keyset sobre (dataEntrada, id) e o total só é contado se solicitado.
      *
      * @param user     Detalhes do usuário autenticado
      * @param pageable Objeto de paginação
-     * @return ResponseEntity com um DTO paginado dos registros de estacionamentos do cliente logado
+     * @param after    Cursor da próxima página, vazio para a primeira página da paginação por keyset
+     * @param count    Se o total de registros deve ser contado na paginação por keyset
+     * @return ResponseEntity com um DTO paginado (PageableDto ou CursorPageDto) dos registros de estacionamentos do cliente logado
      */
     @Operation(summary = "Localizar os registros de estacionamentos do cliente logado",
             description = "Localizar os registros de estacionamentos do cliente logado. " +
@@ -221,22 +459,48 @@ public class EstacionamentoController {
                     ),
                     @Parameter(in = QUERY, name = "sort", hidden = true,
                             array = @ArraySchema(schema = @Schema(type = "string", defaultValue = "dataEntrada,asc")),
-                            description = "Campo padrão de ordenação 'dataEntrada,asc'. ")
+                            description = "Campo padrão de ordenação 'dataEntrada,asc'. " +
+                                    "Não pode ser combinado com after, cuja ordenação é sempre (dataEntrada, id)."),
+                    @Parameter(in = QUERY, name = "after",
+                            content = @Content(schema = @Schema(type = "string")),
+                            description = "Ativa a paginação por cursor: vazio para a primeira página ou o campo 'next' da página anterior. " +
+                                    "Um sort diferente do padrão é recusado com status 400"
+                    ),
+                    @Parameter(in = QUERY, name = "count",
+                            content = @Content(schema = @Schema(type = "boolean", defaultValue = "false")),
+                            description = "Na paginação por cursor, inclui o total de elementos na resposta"
+                    )
             },
             responses = {
                     @ApiResponse(responseCode = "200", description = "Recurso localizado com sucesso",
                             content = @Content(mediaType = " application/json;charset=UTF-8",
-                                    schema = @Schema(implementation = EstacionamentoResponseDto.class))),
+                                    schema = @Schema(implementation = PaginaDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Cursor inválido ou ordenação informada junto com o cursor",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = ErrorMessage.class))),
                     @ApiResponse(responseCode = "403", description = "Recurso não permito ao perfil de ADMIN",
                             content = @Content(mediaType = " application/json;charset=UTF-8",
                                     schema = @Schema(implementation = ErrorMessage.class)))
             })
     @GetMapping
     @PreAuthorize("hasRole('CLIENTE')")
-    public ResponseEntity<PageableDto> getAllEstacionamentosDoCliente(@AuthenticationPrincipal JwtUserDetails user,
-                                                                      @Parameter(hidden = true) @PageableDefault(
-                                                                              size = 5, sort = "dataEntrada",
-                                                                              direction = Sort.Direction.ASC) Pageable pageable) {
+    public ResponseEntity<PaginaDto> getAllEstacionamentosDoCliente(@AuthenticationPrincipal JwtUserDetails user,
+                                                                    @Parameter(hidden = true) @PageableDefault(
+                                                                            size = 5, sort = "dataEntrada",
+                                                                            direction = Sort.Direction.ASC) Pageable pageable,
+                                                                    @Parameter(hidden = true) @RequestParam(required = false) String after,
+                                                                    @Parameter(hidden = true) @RequestParam(defaultValue = "false") boolean count) {
+        if (after != null) {
+            int size = pageable.getPageSize();
+            ChaveEntrada apos = ChaveEntrada.de(after, pageable.getSort());
+            List<ClienteVagaProjection> registros = clienteVagaService.buscarTodosPorUsuarioId(
+                    user.getId(), apos.dataEntrada(), apos.id(), size + 1);
+            CursorPageDto dto = toCursorPageDto(registros, size);
+            if (count) {
+                dto.setTotalElements(clienteVagaService.contarPorUsuarioId(user.getId()));
+            }
+            return ResponseEntity.ok(dto);
+        }
 
         Page<ClienteVagaProjection> projection = clienteVagaService.buscarTodosPorUsuarioId(user.getId(), pageable);
         PageableDto dto = PageableMapper.toDto(projection);
@@ -267,14 +531,56 @@ public class EstacionamentoController {
     @PreAuthorize("hasRole('CLIENTE')")
     public ResponseEntity<Void> getRelatorio(HttpServletResponse response, @AuthenticationPrincipal JwtUserDetails user) throws IOException {
         String cpf = clienteService.buscarPorUsuarioId(user.getId()).getCpf();
-        jasperService.addParams("CPF", cpf);
-
-        byte[] bytes = jasperService.gerarPdf();
 
-        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
-        response.setHeader("Content-disposition", "inline; filename=" + System.currentTimeMillis() + ".pdf");
-        response.getOutputStream().write(bytes);
+        // O PDF é exportado diretamente na resposta, sem ser montado inteiro em memória; a resposta só é iniciada
+        // após o preenchimento, para que uma falha no relatório seja respondida com o status de erro
+        jasperService.gerarPdf("estacionamentos", Map.of("CPF", cpf), () -> {
+            response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            response.setHeader("Content-disposition", "inline; filename=" + System.currentTimeMillis() + ".pdf");
+            return response.getOutputStream();
+        });
 
         return ResponseEntity.ok().build();
     }
+
+    private CursorPageDto toCursorPageDto(List<ClienteVagaProjection> registros, int size) {
+        return CursorPageMapper.toDto(registros, size,
+                registro -> CursorUtils.codificar(registro.dataEntrada(), registro.id()), registro -> registro);
+    }
+
+    private EstacionamentoLoteResponseDto toLoteResponseDto(int indice, ResultadoLote<ClienteVaga> resultado,
+                                                            HttpServletRequest request) {
+        if (resultado.isSucesso()) {
+            return new EstacionamentoLoteResponseDto(indice, ClienteVagaMapper.toDto(resultado.getValor()), null);
+        }
+        return new EstacionamentoLoteResponseDto(indice, null, toErrorMessage(resultado.getErro(), request));
+    }
+
+    private ErrorMessage toErrorMessage(RuntimeException ex, HttpServletRequest request) {
+        if (ex instanceof EntityNotFoundException e) {
+            Object[] params = new Object[]{e.getRecurso(), e.getCodigo()};
+            String message = messageSource.getMessage("exception.entityNotFoundException", params, request.getLocale());
+            return new ErrorMessage(request, HttpStatus.NOT_FOUND, message);
+        }
+        if (ex instanceof ReciboCheckInNotFoundException e) {
+            Object[] params = new Object[]{e.getRecibo()};
+            String message = messageSource.getMessage("exception.reciboCheckInNotFoundException", params, request.getLocale());
+            return new ErrorMessage(request, HttpStatus.NOT_FOUND, message);
+        }
+        if (ex instanceof VagaDisponivelException) {
+            String message = messageSource.getMessage("exception.vagaDisponivelException", null, request.getLocale());
+            return new ErrorMessage(request, HttpStatus.NOT_FOUND, message);
+        }
+        return new ErrorMessage(request, HttpStatus.INTERNAL_SERVER_ERROR, HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase());
+    }
+
+    // Chave (dataEntrada, id) do último registro da página anterior, na paginação por keyset
+    private record ChaveEntrada(LocalDateTime dataEntrada, Long id) {
+
+        static ChaveEntrada de(String after, Sort ordenacao) {
+            CursorUtils.validarOrdenacao(ordenacao, Sort.by("dataEntrada"), "dataEntrada, id");
+            return after.isEmpty() ? new ChaveEntrada(null, null)
+                    : CursorUtils.decodificar(after, valores -> new ChaveEntrada(LocalDateTime.parse(valores[0]), Long.valueOf(valores[1])));
+        }
+    }
 }
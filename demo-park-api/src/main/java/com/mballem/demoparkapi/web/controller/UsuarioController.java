@@ -1,28 +1,37 @@
 package com.mballem.demoparkapi.web.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mballem.demoparkapi.entity.Usuario;
 import com.mballem.demoparkapi.service.UsuarioService;
+import com.mballem.demoparkapi.util.CursorUtils;
+import com.mballem.demoparkapi.web.dto.CursorPageDto;
 import com.mballem.demoparkapi.web.dto.UsuarioCreateDto;
 import com.mballem.demoparkapi.web.dto.UsuarioResponseDto;
 import com.mballem.demoparkapi.web.dto.UsuarioSenhaDto;
+import com.mballem.demoparkapi.web.dto.mapper.CursorPageMapper;
 import com.mballem.demoparkapi.web.dto.mapper.UsuarioMapper;
 import com.mballem.demoparkapi.web.exception.ErrorMessage;
 import io.swagger.v3.oas.annotations.Operation;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
+import static io.swagger.v3.oas.annotations.enums.ParameterIn.QUERY;
+
 /**
  * Controlador REST para operações relacionadas a usuários do sistema.
  */
@@ -32,7 +41,10 @@ import java.util.List;
 @RequestMapping("api/v1/usuarios")
 public class UsuarioController {
 
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
+
     private final UsuarioService usuarioService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Endpoint para criar um novo usuário.
@@ -104,23 +116,67 @@ public class UsuarioController {
     }
 
     /**
-     * Endpoint para listar todos os usuários cadastrados.
+     * Endpoint para listar os usuários cadastrados com paginação por keyset.
      *
-     * @return ResponseEntity com uma lista de DTOs dos usuários cadastrados
+     * @param after Cursor da próxima página, recebido na página anterior, ou null/vazio para a primeira página
+     * @param size  Quantidade de usuários por página
+     * @return ResponseEntity com a página de DTOs dos usuários e o cursor da próxima página
      */
-    @Operation(summary = "Listar todos os usuários cadastrados", description = "Requisição exige um Bearer Token. Acesso restrito a ADMIN",
+    @Operation(summary = "Listar os usuários cadastrados", description = "Requisição exige um Bearer Token. Acesso restrito a ADMIN",
             security = @SecurityRequirement(name = "security"),
+            parameters = {
+                    @Parameter(in = QUERY, name = "after",
+                            content = @Content(schema = @Schema(type = "string")),
+                            description = "Cursor da próxima página, retornado no campo 'next' da página anterior, ou vazio para a primeira página"
+                    ),
+                    @Parameter(in = QUERY, name = "size",
+                            content = @Content(schema = @Schema(type = "integer", defaultValue = "20", maximum = "100")),
+                            description = "Representa o total de elementos por página"
+                    )
+            },
             responses = {
-                    @ApiResponse(responseCode = "200", description = "Lista com todos os usuários cadastrados",
+                    @ApiResponse(responseCode = "200", description = "Página de usuários cadastrados",
                             content = @Content(mediaType = "application/json",
-                                    array = @ArraySchema(schema = @Schema(implementation = UsuarioResponseDto.class)))),
+                                    schema = @Schema(implementation = CursorPageDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Cursor inválido",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
                     @ApiResponse(responseCode = "403", description = "Usuário sem permissão para acessar este recurso",
                             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
             })
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UsuarioResponseDto>> getAll() {
-        List<Usuario> users = usuarioService.buscarTodos();
-        return ResponseEntity.ok(UsuarioMapper.toListDto(users));
+    public ResponseEntity<CursorPageDto> getAll(@Parameter(hidden = true) @RequestParam(required = false) String after,
+                                                @Parameter(hidden = true) @RequestParam(defaultValue = "20") int size) {
+        int tamanho = Math.max(1, Math.min(size, TAMANHO_MAXIMO_PAGINA));
+        Long aposId = after == null || after.isEmpty() ? null
+                : CursorUtils.decodificar(after, valores -> Long.valueOf(valores[0]));
+        List<Usuario> users = usuarioService.buscarTodos(aposId, tamanho + 1);
+        return ResponseEntity.ok(CursorPageMapper.toDto(users, tamanho,
+                user -> CursorUtils.codificar(user.getId()), UsuarioMapper::toDto));
+    }
+
+    /**
+     * Endpoint para exportar todos os usuários cadastrados como JSON delimitado por quebras de linha.
+     * Os usuários são escritos na resposta à medida que são lidos do banco de dados.
+     *
+     * @param response HttpServletResponse para escrever os usuários
+     * @throws IOException Exceção em caso de erro de IO
+     */
+    @Operation(summary = "Exportar todos os usuários cadastrados", description = "Requisição exige um Bearer Token. Acesso restrito a ADMIN. " +
+            "Cada linha da resposta contém um usuário em JSON.",
+            security = @SecurityRequirement(name = "security"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Usuários cadastrados, um por linha",
+                            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                    schema = @Schema(implementation = UsuarioResponseDto.class))),
+                    @ApiResponse(responseCode = "403", description = "Usuário sem permissão para acessar este recurso",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
+            })
+    @GetMapping("/stream")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void getAllStream(HttpServletResponse response) throws IOException {
+        try (EscritorNdjson escritor = new EscritorNdjson(objectMapper, response)) {
+            usuarioService.percorrerTodos(usuario -> escritor.escrever(UsuarioMapper.toDto(usuario)));
+        }
     }
 }
@@ -2,6 +2,7 @@ package com.mballem.demoparkapi.web.controller;
 
 import com.mballem.demoparkapi.entity.Vaga;
 import com.mballem.demoparkapi.service.VagaService;
+import com.mballem.demoparkapi.web.dto.OcupacaoResponseDto;
 import com.mballem.demoparkapi.web.dto.VagaCreateDto;
 import com.mballem.demoparkapi.web.dto.VagaResponseDto;
 import com.mballem.demoparkapi.web.dto.mapper.VagaMapper;
@@ -102,4 +103,22 @@ public class VagaController {
         // Retorna a vaga encontrada como DTO no ResponseEntity com status 200 (OK)
         return ResponseEntity.ok(VagaMapper.toDto(vaga));
     }
+
+    /**
+     * Endpoint para consultar a quantidade de vagas livres e ocupadas.
+     *
+     * @return ResponseEntity com o total de vagas e as quantidades de vagas livres e ocupadas
+     */
+    @Operation(summary = "Consultar a ocupação das vagas", description = "Recurso para retornar o total de vagas e " +
+            "as quantidades de vagas livres e ocupadas, a partir de contadores mantidos em memória. Acesso público.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Recurso localizado com sucesso",
+                            content = @Content(mediaType = " application/json;charset=UTF-8",
+                                    schema = @Schema(implementation = OcupacaoResponseDto.class)))
+            })
+    @GetMapping("/ocupacao")
+    public ResponseEntity<OcupacaoResponseDto> getOcupacao() {
+        // Lê os contadores em memória, sem acessar o banco de dados
+        return ResponseEntity.ok(VagaMapper.toDto(vagaService.buscarOcupacao()));
+    }
 }
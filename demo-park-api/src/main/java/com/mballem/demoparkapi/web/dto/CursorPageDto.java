@@ -0,0 +1,21 @@
+package com.mballem.demoparkapi.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @Setter
+public class CursorPageDto implements PaginaDto {
+    private List content = new ArrayList<>();
+    private boolean last;
+    private int size;
+    @JsonProperty("pageElements")
+    private int numberOfElements;
+    private String next;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalElements;
+}
@@ -0,0 +1,19 @@
+package com.mballem.demoparkapi.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.mballem.demoparkapi.web.exception.ErrorMessage;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EstacionamentoLoteResponseDto {
+    private int indice;
+    private EstacionamentoResponseDto estacionamento;
+    private ErrorMessage erro;
+}
@@ -27,6 +27,8 @@ public class EstacionamentoResponseDto {
     @JsonFormat(pattern = "yyyy-MM-dd hh:mm:ss")
     private LocalDateTime dataSaida;
     private String vagaCodigo;
+    private String vagaInformada;
+    private Boolean conflitoVaga;
     private BigDecimal valor;
     private BigDecimal desconto;
 }
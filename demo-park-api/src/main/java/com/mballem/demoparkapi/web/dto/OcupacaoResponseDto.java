@@ -0,0 +1,13 @@
+package com.mballem.demoparkapi.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class OcupacaoResponseDto {
+    private long total;
+    private long livres;
+    private long ocupadas;
+}
@@ -8,7 +8,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Getter @Setter
-public class PageableDto {
+public class PageableDto implements PaginaDto {
     private List content = new ArrayList<>();
     private boolean first;
     private boolean last;
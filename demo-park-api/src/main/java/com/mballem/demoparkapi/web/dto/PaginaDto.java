@@ -0,0 +1,11 @@
+package com.mballem.demoparkapi.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Página retornada pelas listagens que atendem tanto a paginação por número de página ({@link PageableDto})
+ * quanto a paginação por cursor ({@link CursorPageDto}, quando o parâmetro after é informado).
+ */
+@Schema(oneOf = {PageableDto.class, CursorPageDto.class})
+public interface PaginaDto {
+}
@@ -1,20 +1,65 @@
 package com.mballem.demoparkapi.web.dto.mapper;
 
+import com.mballem.demoparkapi.entity.Cliente;
 import com.mballem.demoparkapi.entity.ClienteVaga;
+import com.mballem.demoparkapi.service.TicketAberto;
 import com.mballem.demoparkapi.web.dto.EstacionamentoCreateDto;
 import com.mballem.demoparkapi.web.dto.EstacionamentoResponseDto;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class ClienteVagaMapper {
 
     public static ClienteVaga toClienteVaga(EstacionamentoCreateDto dto) {
-        return new ModelMapper().map(dto, ClienteVaga.class);
+        ClienteVaga clienteVaga = new ClienteVaga();
+        clienteVaga.setPlaca(dto.getPlaca());
+        clienteVaga.setMarca(dto.getMarca());
+        clienteVaga.setModelo(dto.getModelo());
+        clienteVaga.setCor(dto.getCor());
+        if (dto.getClienteCpf() != null) {
+            // O cliente é localizado pelo CPF no check-in
+            Cliente cliente = new Cliente();
+            cliente.setCpf(dto.getClienteCpf());
+            clienteVaga.setCliente(cliente);
+        }
+        return clienteVaga;
     }
 
     public static EstacionamentoResponseDto toDto(ClienteVaga clienteVaga) {
-        return new ModelMapper().map(clienteVaga, EstacionamentoResponseDto.class);
+        EstacionamentoResponseDto dto = new EstacionamentoResponseDto();
+        dto.setPlaca(clienteVaga.getPlaca());
+        dto.setMarca(clienteVaga.getMarca());
+        dto.setModelo(clienteVaga.getModelo());
+        dto.setCor(clienteVaga.getCor());
+        if (clienteVaga.getCliente() != null) {
+            dto.setClienteCpf(clienteVaga.getCliente().getCpf());
+        }
+        dto.setRecibo(clienteVaga.getRecibo());
+        dto.setDataEntrada(clienteVaga.getDataEntrada());
+        dto.setDataSaida(clienteVaga.getDataSaida());
+        if (clienteVaga.getVaga() != null) {
+            dto.setVagaCodigo(clienteVaga.getVaga().getCodigo());
+        }
+        dto.setVagaInformada(clienteVaga.getVagaInformada());
+        dto.setConflitoVaga(clienteVaga.getConflitoVaga());
+        dto.setValor(clienteVaga.getValor());
+        dto.setDesconto(clienteVaga.getDesconto());
+        return dto;
+    }
+
+    public static EstacionamentoResponseDto toDto(TicketAberto ticket) {
+        EstacionamentoResponseDto dto = new EstacionamentoResponseDto();
+        dto.setPlaca(ticket.getPlaca());
+        dto.setMarca(ticket.getMarca());
+        dto.setModelo(ticket.getModelo());
+        dto.setCor(ticket.getCor());
+        dto.setClienteCpf(ticket.getClienteCpf());
+        dto.setRecibo(ticket.getRecibo());
+        dto.setDataEntrada(ticket.getDataEntrada());
+        dto.setVagaCodigo(ticket.getVagaCodigo());
+        dto.setVagaInformada(ticket.getVagaInformada());
+        dto.setConflitoVaga(ticket.getConflitoVaga());
+        return dto;
     }
 }
@@ -0,0 +1,34 @@
+package com.mballem.demoparkapi.web.dto.mapper;
+
+import com.mballem.demoparkapi.web.dto.CursorPageDto;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CursorPageMapper {
+
+    /**
+     * Monta uma página da paginação por keyset.
+     *
+     * @param resultados Registros buscados com limite de size + 1, o registro excedente indica que há próxima página
+     * @param size       Tamanho da página
+     * @param cursor     Função que gera o cursor a partir do último registro da página
+     * @param conversor  Função que converte cada registro para o DTO da resposta
+     * @return DTO da página, com o cursor da próxima página ou null se esta for a última
+     */
+    public static <T> CursorPageDto toDto(List<T> resultados, int size,
+                                          Function<T, String> cursor, Function<T, ?> conversor) {
+        boolean last = resultados.size() <= size;
+        List<T> pagina = last ? resultados : resultados.subList(0, size);
+        CursorPageDto dto = new CursorPageDto();
+        dto.setContent(pagina.stream().map(conversor).toList());
+        dto.setLast(last);
+        dto.setSize(size);
+        dto.setNumberOfElements(pagina.size());
+        dto.setNext(last ? null : cursor.apply(pagina.get(pagina.size() - 1)));
+        return dto;
+    }
+}
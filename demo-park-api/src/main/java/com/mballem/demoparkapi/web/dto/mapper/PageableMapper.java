@@ -3,13 +3,21 @@ package com.mballem.demoparkapi.web.dto.mapper;
 import com.mballem.demoparkapi.web.dto.PageableDto;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class PageableMapper {
 
     public static PageableDto toDto(Page page) {
-        return new ModelMapper().map(page, PageableDto.class);
+        PageableDto dto = new PageableDto();
+        dto.setContent(page.getContent());
+        dto.setFirst(page.isFirst());
+        dto.setLast(page.isLast());
+        dto.setNumber(page.getNumber());
+        dto.setSize(page.getSize());
+        dto.setNumberOfElements(page.getNumberOfElements());
+        dto.setTotalPages(page.getTotalPages());
+        dto.setTotalElements((int) page.getTotalElements());
+        return dto;
     }
 }
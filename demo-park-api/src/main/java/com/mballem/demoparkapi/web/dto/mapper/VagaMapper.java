@@ -1,20 +1,31 @@
 package com.mballem.demoparkapi.web.dto.mapper;
 
 import com.mballem.demoparkapi.entity.Vaga;
+import com.mballem.demoparkapi.service.Ocupacao;
+import com.mballem.demoparkapi.web.dto.OcupacaoResponseDto;
 import com.mballem.demoparkapi.web.dto.VagaCreateDto;
 import com.mballem.demoparkapi.web.dto.VagaResponseDto;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class VagaMapper {
 
     public static Vaga toVaga(VagaCreateDto dto) {
-        return new ModelMapper().map(dto, Vaga.class);
+        Vaga vaga = new Vaga();
+        vaga.setCodigo(dto.getCodigo());
+        if (dto.getStatus() != null) {
+            vaga.setStatus(Vaga.StatusVaga.valueOf(dto.getStatus()));
+        }
+        return vaga;
     }
 
     public static VagaResponseDto toDto(Vaga vaga) {
-        return new ModelMapper().map(vaga, VagaResponseDto.class);
+        String status = vaga.getStatus() != null ? vaga.getStatus().name() : null;
+        return new VagaResponseDto(vaga.getId(), vaga.getCodigo(), status);
+    }
+
+    public static OcupacaoResponseDto toDto(Ocupacao ocupacao) {
+        return new OcupacaoResponseDto(ocupacao.getTotal(), ocupacao.getLivres(), ocupacao.getOcupadas());
     }
 }
@@ -5,6 +5,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -150,6 +151,70 @@ public class ApiExceptionHandler {
                 .body(new ErrorMessage(request, HttpStatus.NOT_FOUND, message));
     }
 
+    /**
+     * Trata exceções de lote vazio ou maior que o tamanho máximo permitido.
+     */
+    @ExceptionHandler(LoteInvalidoException.class)
+    public ResponseEntity<ErrorMessage> loteInvalidoException(LoteInvalidoException ex, HttpServletRequest request) {
+        Object[] params = new Object[]{ex.getTamanhoMaximo()};
+        String message = messageSource.getMessage("exception.loteInvalidoException", params, request.getLocale());
+        return ResponseEntity
+                .status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, HttpStatus.UNPROCESSABLE_ENTITY, message));
+    }
+
+    /**
+     * Trata exceções de autenticação recusada por saturação do pool de autenticação.
+     */
+    @ExceptionHandler(AutenticacaoSobrecarregadaException.class)
+    public ResponseEntity<ErrorMessage> autenticacaoSobrecarregadaException(AutenticacaoSobrecarregadaException ex, HttpServletRequest request) {
+        String message = messageSource.getMessage("exception.autenticacaoSobrecarregadaException", null, request.getLocale());
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, HttpStatus.TOO_MANY_REQUESTS, message));
+    }
+
+    /**
+     * Trata exceções de token inválido, expirado além da tolerância ou já renovado.
+     */
+    @ExceptionHandler(TokenRefreshInvalidoException.class)
+    public ResponseEntity<ErrorMessage> tokenRefreshInvalidoException(HttpServletRequest request) {
+        String message = messageSource.getMessage("exception.tokenRefreshInvalidoException", null, request.getLocale());
+        return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, HttpStatus.UNAUTHORIZED, message));
+    }
+
+    /**
+     * Trata exceções de cursor de paginação inválido.
+     */
+    @ExceptionHandler(CursorInvalidoException.class)
+    public ResponseEntity<ErrorMessage> cursorInvalidoException(HttpServletRequest request) {
+        String message = messageSource.getMessage("exception.cursorInvalidoException", null, request.getLocale());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, HttpStatus.BAD_REQUEST, message));
+    }
+
+    /**
+     * Trata exceções de ordenação informada junto com um cursor de paginação.
+     */
+    @ExceptionHandler(OrdenacaoCursorInvalidaException.class)
+    public ResponseEntity<ErrorMessage> ordenacaoCursorInvalidaException(OrdenacaoCursorInvalidaException ex,
+                                                                          HttpServletRequest request) {
+        Object[] params = new Object[]{ex.getOrdenacao()};
+        String message = messageSource.getMessage("exception.ordenacaoCursorInvalidaException", params, request.getLocale());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, HttpStatus.BAD_REQUEST, message));
+    }
+
     /**
      * Trata exceções de validação de argumentos do método.
      */
@@ -0,0 +1,136 @@
+package com.mballem.demoparkapi;
+
+import com.mballem.demoparkapi.service.AutenticacaoService;
+import com.mballem.demoparkapi.web.dto.EstacionamentoCreateDto;
+import com.mballem.demoparkapi.web.dto.UsuarioLoginDto;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "demo-park.auth.threads=2",
+        "demo-park.auth.fila=4",
+        "demo-park.auth.retry-after=2"
+})
+@Sql(scripts = "/sql/estacionamentos/estacionamento-insert-vagas-concorrencia.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/estacionamentos/estacionamentos-delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class AutenticacaoCargaIT {
+
+    private static final int THREADS = 2;
+    private static final int FILA = 4;
+
+    @Autowired
+    WebTestClient testClient;
+    @Autowired
+    AutenticacaoService autenticacaoService;
+    @SpyBean
+    AuthenticationManager authenticationManager;
+
+    @Test
+    public void autenticar_ComPicoDeLogins_RecusarExcedenteComStatus429SemAtrasarCheckins() throws Exception {
+        int logins = 60;
+        int checkins = 20;
+        EstacionamentoCreateDto createDto = EstacionamentoCreateDto.builder()
+                .placa("WER-1111").marca("FIAT").modelo("PALIO 1.0")
+                .cor("AZUL").clienteCpf("09191773016")
+                .build();
+        Consumer<HttpHeaders> headers = JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com.br", "123456");
+
+        // As verificações de senha aguardam a liberação, mantendo o pool de autenticação ocupado durante os check-ins
+        CountDownLatch liberacao = new CountDownLatch(1);
+        Mockito.doAnswer(invocacao -> {
+            liberacao.await(60, TimeUnit.SECONDS);
+            return invocacao.callRealMethod();
+        }).when(authenticationManager).authenticate(Mockito.any());
+
+        // Os logins admitidos no pool só são respondidos após os check-ins
+        WebTestClient loginClient = testClient.mutate().responseTimeout(Duration.ofSeconds(60)).build();
+        ExecutorService executor = Executors.newFixedThreadPool(logins);
+        List<Future<EntityExchangeResult<byte[]>>> respostas = new ArrayList<>();
+        for (int i = 0; i < logins; i++) {
+            respostas.add(executor.submit(() -> loginClient.post().uri("/api/v1/auth")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(new UsuarioLoginDto("ana@email.com.br", "123456"))
+                    .exchange()
+                    .expectBody()
+                    .returnResult()));
+        }
+        aguardarPoolSaturado();
+
+        // Check-ins sequenciais com todas as threads de autenticação ocupadas e a fila cheia
+        long latenciaMaxima = 0;
+        long latenciaTotal = 0;
+        for (int i = 0; i < checkins; i++) {
+            long inicioCheckin = System.nanoTime();
+            testClient.post().uri("/api/v1/estacionamentos/check-in")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .headers(headers)
+                    .bodyValue(createDto)
+                    .exchange()
+                    .expectStatus().isCreated();
+            long latencia = (System.nanoTime() - inicioCheckin) / 1_000_000;
+            latenciaMaxima = Math.max(latenciaMaxima, latencia);
+            latenciaTotal += latencia;
+        }
+        // O pool continuou saturado durante todos os check-ins: nenhum deles dependeu de uma thread de autenticação
+        org.assertj.core.api.Assertions.assertThat(autenticacaoService.getAtivas()).isEqualTo(THREADS);
+        org.assertj.core.api.Assertions.assertThat(autenticacaoService.getFila()).isEqualTo(FILA);
+
+        long inicio = System.nanoTime();
+        liberacao.countDown();
+        int sucessos = 0;
+        int recusadas = 0;
+        for (Future<EntityExchangeResult<byte[]>> resposta : respostas) {
+            EntityExchangeResult<byte[]> result = resposta.get();
+            if (result.getStatus().value() == 200) {
+                sucessos++;
+            } else {
+                org.assertj.core.api.Assertions.assertThat(result.getStatus().value()).isEqualTo(429);
+                org.assertj.core.api.Assertions.assertThat(result.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+                recusadas++;
+            }
+        }
+        long duracao = (System.nanoTime() - inicio) / 1_000_000;
+        executor.shutdown();
+
+        log.debug("{} logins concorrentes ({} com sucesso, {} recusados): {} logins/s após a liberação do pool em {} ms; "
+                        + "{} check-ins com o pool saturado, latência média de {} ms e máxima de {} ms",
+                logins, sucessos, recusadas, String.format("%.1f", sucessos * 1000.0 / Math.max(duracao, 1)), duracao,
+                checkins, latenciaTotal / checkins, latenciaMaxima);
+
+        // Somente os logins que couberam nas threads e na fila foram atendidos
+        org.assertj.core.api.Assertions.assertThat(sucessos).isEqualTo(THREADS + FILA);
+        org.assertj.core.api.Assertions.assertThat(recusadas).isEqualTo(logins - THREADS - FILA);
+    }
+
+    private void aguardarPoolSaturado() throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (autenticacaoService.getAtivas() < THREADS || autenticacaoService.getFila() < FILA) {
+            if (System.nanoTime() > limite) {
+                org.assertj.core.api.Assertions.fail("Pool de autenticação não saturado: %d ativas, %d na fila",
+                        autenticacaoService.getAtivas(), autenticacaoService.getFila());
+            }
+            Thread.sleep(10);
+        }
+    }
+}
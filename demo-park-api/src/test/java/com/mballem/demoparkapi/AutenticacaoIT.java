@@ -132,4 +132,100 @@ public class AutenticacaoIT {
         org.assertj.core.api.Assertions.assertThat(responseBody.getStatus()).isEqualTo(422);
     }
 
+    @Test
+    public void renovar_ComTokenValido_RetornarNovoTokenSomenteUmaVez() {
+        String token = testClient
+                .post()
+                .uri("/api/v1/auth")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UsuarioLoginDto("ana@email.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JwtToken.class)
+                .returnResult().getResponseBody().getToken();
+
+        JwtToken renovado = testClient
+                .post()
+                .uri("/api/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new JwtToken(token))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JwtToken.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(renovado.getToken()).isNotBlank().isNotEqualTo(token);
+
+        ErrorMessage responseBody = testClient
+                .post()
+                .uri("/api/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new JwtToken(token))
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody(ErrorMessage.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getStatus()).isEqualTo(401);
+    }
+
+    @Test
+    public void renovar_ComTokenInvalido_RetornarErrorMessageStatus401() {
+        ErrorMessage responseBody = testClient
+                .post()
+                .uri("/api/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new JwtToken("token-invalido"))
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody(ErrorMessage.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getStatus()).isEqualTo(401);
+    }
+
+    @Test
+    public void logout_ComTokenValido_RevogarTokenComStatus204() {
+        String token = testClient
+                .post()
+                .uri("/api/v1/auth")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UsuarioLoginDto("ana@email.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JwtToken.class)
+                .returnResult().getResponseBody().getToken();
+
+        testClient
+                .get()
+                .uri("/api/v1/usuarios/100")
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isOk();
+
+        testClient
+                .post()
+                .uri("/api/v1/auth/logout")
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isNoContent();
+
+        testClient
+                .get()
+                .uri("/api/v1/usuarios/100")
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        testClient
+                .post()
+                .uri("/api/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new JwtToken(token))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
 }
@@ -0,0 +1,49 @@
+package com.mballem.demoparkapi;
+
+import java.util.Objects;
+
+/**
+ * Medição de vazão usada pelos testes *BenchmarkTest, que comparam uma implementação com a anterior.
+ * As rodadas de aquecimento deixam o JIT compilar o código antes das rodadas medidas; o resultado de cada rodada
+ * é consumido para que o cálculo não seja descartado pelo compilador.
+ * As medições são marcadas com {@code @Tag(Benchmark.TAG)}, fora da execução padrão dos testes, e apenas registram
+ * os resultados no log: tempo de relógio em máquinas compartilhadas não serve como critério de aprovação.
+ * Executadas com {@code mvn test -Pbenchmark}.
+ */
+final class Benchmark {
+
+    static final String TAG = "benchmark";
+
+    private static volatile int consumidor;
+
+    private Benchmark() {
+    }
+
+    /**
+     * @param operacoesPorRodada Quantidade de operações executadas em cada rodada
+     * @param aquecimento        Rodadas executadas antes da medição
+     * @param rodadas            Rodadas medidas
+     * @param rodada             Rodada a ser medida, retornando um resultado a ser consumido
+     * @return Operações por segundo nas rodadas medidas
+     */
+    static double operacoesPorSegundo(int operacoesPorRodada, int aquecimento, int rodadas, Rodada rodada) throws Exception {
+        for (int i = 0; i < aquecimento; i++) {
+            consumir(rodada.executar());
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < rodadas; i++) {
+            consumir(rodada.executar());
+        }
+        long duracao = System.nanoTime() - inicio;
+        return (double) operacoesPorRodada * rodadas / duracao * 1_000_000_000;
+    }
+
+    private static void consumir(Object resultado) {
+        consumidor += Objects.hashCode(resultado);
+    }
+
+    @FunctionalInterface
+    interface Rodada {
+        Object executar() throws Exception;
+    }
+}
@@ -2,6 +2,7 @@ package com.mballem.demoparkapi;
 
 import com.mballem.demoparkapi.web.dto.ClienteCreateDto;
 import com.mballem.demoparkapi.web.dto.ClienteResponseDto;
+import com.mballem.demoparkapi.web.dto.CursorPageDto;
 import com.mballem.demoparkapi.web.dto.PageableDto;
 import com.mballem.demoparkapi.web.exception.ErrorMessage;
 import org.junit.jupiter.api.Test;
@@ -193,6 +194,55 @@ public class ClienteIT {
         org.assertj.core.api.Assertions.assertThat(responseBody.getTotalPages()).isEqualTo(2);
     }
 
+    @Test
+    public void buscarClientes_ComPaginacaoPorCursorPeloAdmin_RetornarClientesComStatus200() {
+        CursorPageDto responseBody = testClient
+                .get()
+                .uri("/api/v1/clientes?size=1&after=")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CursorPageDto.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getContent().size()).isEqualTo(1);
+        org.assertj.core.api.Assertions.assertThat(responseBody.getContent().get(0).toString()).contains("Bianca Silva");
+        org.assertj.core.api.Assertions.assertThat(responseBody.isLast()).isFalse();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getTotalElements()).isNull();
+
+        responseBody = testClient
+                .get()
+                .uri("/api/v1/clientes?size=1&after={after}&count=true", responseBody.getNext())
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CursorPageDto.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getContent().size()).isEqualTo(1);
+        org.assertj.core.api.Assertions.assertThat(responseBody.getContent().get(0).toString()).contains("Roberto Gomes");
+        org.assertj.core.api.Assertions.assertThat(responseBody.isLast()).isTrue();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getNext()).isNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    public void buscarClientes_ComPaginacaoPorCursorEOrdenacaoDiferenteDaPadrao_RetornarErrorMessageComStatus400() {
+        ErrorMessage responseBody = testClient
+                .get()
+                .uri("/api/v1/clientes?after=&sort=cpf,desc")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com", "123456"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(ErrorMessage.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getStatus()).isEqualTo(400);
+    }
+
     @Test
     public void buscarClientes_ComPaginacaoPeloCliente_RetornarErrorMessageComStatus403() {
         ErrorMessage responseBody = testClient
@@ -1,16 +1,33 @@
 package com.mballem.demoparkapi;
 
+import com.mballem.demoparkapi.service.VagaLivreIndex;
+import com.mballem.demoparkapi.web.dto.CursorPageDto;
 import com.mballem.demoparkapi.web.dto.EstacionamentoCreateDto;
 import com.mballem.demoparkapi.web.dto.PageableDto;
 import io.jsonwebtoken.Jwt;
+import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+@Slf4j
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @Sql(scripts = "/sql/estacionamentos/estacionamentos-insert.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
 @Sql(scripts = "/sql/estacionamentos/estacionamentos-delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
@@ -18,6 +35,8 @@ public class EstacionamentoIT {
 
     @Autowired
     WebTestClient testClient;
+    @Autowired
+    VagaLivreIndex vagaLivreIndex;
 
     @Test
     public void criarCheckin_ComDadosValidos_RetornarCreatedAndLocation() {
@@ -122,6 +141,118 @@ public class EstacionamentoIT {
                 .jsonPath("method").isEqualTo("POST");
     }
 
+    @Sql(scripts = "/sql/estacionamentos/estacionamento-insert-vagas-concorrencia.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = "/sql/estacionamentos/estacionamentos-delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    @Test
+    public void criarCheckin_ComRequisicoesConcorrentes_RetornarVagasDistintas() throws Exception {
+        vagaLivreIndex.reconciliar(); // Carrega no índice as vagas livres inseridas pelo script, para ocupá-las pelo índice
+        int requisicoes = 300;
+        EstacionamentoCreateDto createDto = EstacionamentoCreateDto.builder()
+                .placa("WER-1111").marca("FIAT").modelo("PALIO 1.0")
+                .cor("AZUL").clienteCpf("09191773016")
+                .build();
+        Consumer<HttpHeaders> headers = JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com.br", "123456");
+
+        ExecutorService executor = Executors.newFixedThreadPool(50);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<EntityExchangeResult<Map<String, Object>>>> respostas = new ArrayList<>();
+        for (int i = 0; i < requisicoes; i++) {
+            respostas.add(executor.submit(() -> {
+                largada.await();
+                return testClient.post().uri("/api/v1/estacionamentos/check-in")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .headers(headers)
+                        .bodyValue(createDto)
+                        .exchange()
+                        .expectBody(new ParameterizedTypeReference<Map<String, Object>>() {})
+                        .returnResult();
+            }));
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        Set<Object> vagas = new HashSet<>();
+        int sucessos = 0;
+        for (Future<EntityExchangeResult<Map<String, Object>>> resposta : respostas) {
+            EntityExchangeResult<Map<String, Object>> result = resposta.get();
+            if (result.getStatus().value() == 201) {
+                sucessos++;
+                vagas.add(result.getResponseBody().get("vagaCodigo"));
+            }
+        }
+        long duracao = (System.nanoTime() - inicio) / 1_000_000;
+        executor.shutdown();
+
+        log.debug("{} check-ins concorrentes ({} com sucesso) em {} ms", requisicoes, sucessos, duracao);
+
+        org.assertj.core.api.Assertions.assertThat(sucessos).isEqualTo(requisicoes);
+        org.assertj.core.api.Assertions.assertThat(vagas).hasSize(requisicoes);
+    }
+
+    @Test
+    public void criarCheckinEmLote_ComItensValidosEInvalidos_RetornarResultadoPorItem() {
+        List<EstacionamentoCreateDto> createDtos = List.of(
+                EstacionamentoCreateDto.builder()
+                        .placa("WER-1111").marca("FIAT").modelo("PALIO 1.0")
+                        .cor("AZUL").clienteCpf("09191773016")
+                        .build(),
+                EstacionamentoCreateDto.builder()
+                        .placa("WER-3333").marca("FIAT").modelo("SIENA")
+                        .cor("PRETO").clienteCpf("98401203015")
+                        .build(),
+                EstacionamentoCreateDto.builder()
+                        .placa("WER-2222").marca("FIAT").modelo("PALIO 1.0")
+                        .cor("AZUL").clienteCpf("33838667000")
+                        .build(),
+                EstacionamentoCreateDto.builder()
+                        .placa("").marca("").modelo("")
+                        .cor("").clienteCpf("")
+                        .build()
+        );
+
+        testClient.post().uri("/api/v1/estacionamentos/check-in/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com.br", "123456"))
+                .bodyValue(createDtos)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(4)
+                .jsonPath("[0].indice").isEqualTo(0)
+                .jsonPath("[0].estacionamento.placa").isEqualTo("WER-1111")
+                .jsonPath("[0].estacionamento.recibo").exists()
+                .jsonPath("[0].estacionamento.vagaCodigo").exists()
+                .jsonPath("[0].erro").doesNotExist()
+                .jsonPath("[1].indice").isEqualTo(1)
+                .jsonPath("[1].estacionamento.placa").isEqualTo("WER-3333")
+                .jsonPath("[1].erro").doesNotExist()
+                .jsonPath("[2].indice").isEqualTo(2)
+                .jsonPath("[2].estacionamento").doesNotExist()
+                .jsonPath("[2].erro.status").isEqualTo("404")
+                .jsonPath("[3].indice").isEqualTo(3)
+                .jsonPath("[3].erro.status").isEqualTo("422")
+                .jsonPath("[3].erro.errors").exists()
+                // Itens válidos do mesmo lote recebem recibos e vagas distintos
+                .jsonPath("$[*].estacionamento.recibo").value((List<String> recibos) ->
+                        org.assertj.core.api.Assertions.assertThat(recibos).hasSize(2).doesNotHaveDuplicates())
+                .jsonPath("$[*].estacionamento.vagaCodigo").value((List<String> vagas) ->
+                        org.assertj.core.api.Assertions.assertThat(vagas).hasSize(2).doesNotHaveDuplicates());
+    }
+
+    @Test
+    public void criarCheckinEmLote_ComLoteVazio_RetornarErrorStatus422() {
+        testClient.post().uri("/api/v1/estacionamentos/check-in/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com.br", "123456"))
+                .bodyValue(List.of())
+                .exchange()
+                .expectStatus().isEqualTo(422)
+                .expectBody()
+                .jsonPath("status").isEqualTo("422")
+                .jsonPath("path").isEqualTo("/api/v1/estacionamentos/check-in/batch")
+                .jsonPath("method").isEqualTo("POST");
+    }
+
     @Test
     public void buscarCheckin_ComPerfilAdmin_RetornarDadosStatus200() {
 
@@ -174,6 +305,49 @@ public class EstacionamentoIT {
                 .jsonPath("method").isEqualTo("GET");
     }
 
+    @Test
+    public void buscarCheckin_AposCheckinECheckout_RetornarTicketSomenteEnquantoAberto() {
+        EstacionamentoCreateDto createDto = EstacionamentoCreateDto.builder()
+                .placa("WER-1111").marca("FIAT").modelo("PALIO 1.0")
+                .cor("AZUL").clienteCpf("09191773016")
+                .build();
+        Consumer<HttpHeaders> headers = JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com.br", "123456");
+
+        Map<String, Object> checkin = testClient.post().uri("/api/v1/estacionamentos/check-in")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(headers)
+                .bodyValue(createDto)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .returnResult().getResponseBody();
+        Object recibo = checkin.get("recibo");
+
+        testClient.get()
+                .uri("/api/v1/estacionamentos/check-in/{recibo}", recibo)
+                .headers(headers)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("recibo").isEqualTo(recibo)
+                .jsonPath("placa").isEqualTo("WER-1111")
+                .jsonPath("clienteCpf").isEqualTo("09191773016")
+                .jsonPath("dataEntrada").isEqualTo(checkin.get("dataEntrada"))
+                .jsonPath("vagaCodigo").isEqualTo(checkin.get("vagaCodigo"));
+
+        testClient.put()
+                .uri("/api/v1/estacionamentos/check-out/{recibo}", recibo)
+                .headers(headers)
+                .exchange()
+                .expectStatus().isOk();
+
+        testClient.get()
+                .uri("/api/v1/estacionamentos/check-in/{recibo}", recibo)
+                .headers(headers)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
     @Test
     public void criarCheckOut_ComReciboExistente_RetornarSucesso() {
 
@@ -196,6 +370,31 @@ public class EstacionamentoIT {
                 .jsonPath("desconto").exists();
     }
 
+    @Test
+    public void criarCheckOutEmLote_ComRecibosExistentesEInexistentes_RetornarResultadoPorItem() {
+        List<String> recibos = List.of("20230313-101300", "20230315-101500", "20230313-101300", "20230313-000000");
+
+        testClient.put().uri("/api/v1/estacionamentos/check-out/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com.br", "123456"))
+                .bodyValue(recibos)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(4)
+                .jsonPath("[0].estacionamento.recibo").isEqualTo("20230313-101300")
+                .jsonPath("[0].estacionamento.vagaCodigo").isEqualTo("A-01")
+                .jsonPath("[0].estacionamento.dataSaida").exists()
+                .jsonPath("[0].estacionamento.valor").exists()
+                .jsonPath("[0].estacionamento.desconto").exists()
+                .jsonPath("[1].estacionamento.recibo").isEqualTo("20230315-101500")
+                .jsonPath("[1].estacionamento.vagaCodigo").isEqualTo("A-03")
+                .jsonPath("[2].indice").isEqualTo(2)
+                .jsonPath("[2].erro.status").isEqualTo("404")
+                .jsonPath("[3].indice").isEqualTo(3)
+                .jsonPath("[3].erro.status").isEqualTo("404");
+    }
+
     @Test
     public void criarCheckOut_ComReciboInexistente_RetornarErrorStatus404() {
 
@@ -256,6 +455,50 @@ public class EstacionamentoIT {
         org.assertj.core.api.Assertions.assertThat(responseBody.getSize()).isEqualTo(1);
     }
 
+    @Test
+    public void buscarEstacionamentos_PorClienteCpfComPaginacaoPorCursor_RetornarSucesso() {
+
+        CursorPageDto responseBody = testClient.get()
+                .uri("/api/v1/estacionamentos/cpf/{cpf}?size=1&after=", "98401203015")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com.br", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CursorPageDto.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getContent().size()).isEqualTo(1);
+        org.assertj.core.api.Assertions.assertThat(responseBody.getContent().get(0).toString()).contains("20230313-101300");
+        org.assertj.core.api.Assertions.assertThat(responseBody.getNext()).isNotNull();
+
+        responseBody = testClient.get()
+                .uri("/api/v1/estacionamentos/cpf/{cpf}?size=1&after={after}&count=true", "98401203015", responseBody.getNext())
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com.br", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CursorPageDto.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getContent().size()).isEqualTo(1);
+        org.assertj.core.api.Assertions.assertThat(responseBody.getContent().get(0).toString()).contains("20230315-101500");
+        org.assertj.core.api.Assertions.assertThat(responseBody.isLast()).isTrue();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    public void buscarEstacionamentos_PorClienteCpfComPaginacaoPorCursorEOrdenacaoDiferenteDaPadrao_RetornarErrorStatus400() {
+
+        testClient.get()
+                .uri("/api/v1/estacionamentos/cpf/{cpf}?after=&sort=dataEntrada,desc", "98401203015")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com.br", "123456"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("status").isEqualTo("400")
+                .jsonPath("path").isEqualTo("/api/v1/estacionamentos/cpf/98401203015");
+    }
+
     @Test
     public void buscarEstacionamentos_PorClienteCpfComPerfilCliente_RetornarErrorStatus403() {
 
@@ -270,6 +513,42 @@ public class EstacionamentoIT {
                 .jsonPath("method").isEqualTo("GET");
     }
 
+    @Test
+    public void exportarEstacionamentos_PorClienteCpf_RetornarUmRegistroPorLinha() {
+
+        String responseBody = testClient.get()
+                .uri("/api/v1/estacionamentos/cpf/{cpf}/exportar", "98401203015")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com.br", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        List<String> linhas = responseBody.lines().toList();
+        org.assertj.core.api.Assertions.assertThat(linhas).hasSize(2);
+        org.assertj.core.api.Assertions.assertThat(linhas.get(0)).contains("\"recibo\":\"20230313-101300\"");
+        org.assertj.core.api.Assertions.assertThat(linhas.get(1)).contains("\"recibo\":\"20230315-101500\"");
+    }
+
+    @Test
+    public void exportarEstacionamentos_PorPeriodo_RetornarRegistrosDoPeriodo() {
+
+        String responseBody = testClient.get()
+                .uri("/api/v1/estacionamentos/exportar?inicio=2023-03-14&fim=2023-03-14")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com.br", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.lines().toList())
+                .hasSize(2)
+                .noneMatch(linha -> linha.contains("20230313-101300"));
+    }
+
     @Test
     public void buscarEstacionamentos_DoClienteLogado_RetornarSucesso() {
 
@@ -302,6 +581,22 @@ public class EstacionamentoIT {
         org.assertj.core.api.Assertions.assertThat(responseBody.getSize()).isEqualTo(1);
     }
 
+    @Test
+    public void gerarRelatorio_DoClienteLogado_RetornarPdfComStatus200() {
+
+        byte[] responseBody = testClient.get()
+                .uri("/api/v1/estacionamentos/relatorio")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "bob@email.com.br", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_PDF)
+                .expectBody(byte[].class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(new String(responseBody, 0, 5)).isEqualTo("%PDF-");
+    }
+
     @Test
     public void buscarEstacionamentos_DoClienteLogadoPerfilAdmin_RetornarErrorStatus403() {
 
@@ -0,0 +1,210 @@
+package com.mballem.demoparkapi;
+
+import com.mballem.demoparkapi.service.EscritorCheckIn;
+import com.mballem.demoparkapi.service.VagaLivreIndex;
+import com.mballem.demoparkapi.web.dto.EstacionamentoCreateDto;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "demo-park.estacionamentos.check-in.write-behind=true",
+        "demo-park.estacionamentos.check-in.diario=target/diario-checkin-it",
+        "demo-park.estacionamentos.check-in.write-behind-intervalo=600000",
+        "demo-park.vagas.reconciliacao-intervalo=600000"
+})
+@Sql(scripts = "/sql/estacionamentos/estacionamentos-insert.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/estacionamentos/estacionamentos-delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class EstacionamentoWriteBehindIT {
+
+    @Autowired
+    WebTestClient testClient;
+    @Autowired
+    VagaLivreIndex vagaLivreIndex;
+    @Autowired
+    EscritorCheckIn escritorCheckIn;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void criarCheckOut_DeCheckinAindaNaoGravado_RetornarSucesso() {
+        vagaLivreIndex.reconciliar(); // Carrega no índice as vagas livres inseridas pelo script
+
+        EstacionamentoCreateDto createDto = EstacionamentoCreateDto.builder()
+                .placa("WER-1111").marca("FIAT").modelo("PALIO 1.0")
+                .cor("AZUL").clienteCpf("09191773016")
+                .build();
+        Consumer<HttpHeaders> headers = JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com.br", "123456");
+
+        Map<String, Object> checkin = testClient.post().uri("/api/v1/estacionamentos/check-in")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(headers)
+                .bodyValue(createDto)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .returnResult().getResponseBody();
+        Object recibo = checkin.get("recibo");
+
+        // O check-in foi respondido sem ser gravado no banco: a consulta é atendida pelo cache ou pela fila pendente
+        Assertions.assertThat(escritorCheckIn.buscarPendente((String) recibo)).isNotNull();
+        Assertions.assertThat(contarRegistros(recibo)).isZero();
+
+        testClient.get()
+                .uri("/api/v1/estacionamentos/check-in/{recibo}", recibo)
+                .headers(headers)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("recibo").isEqualTo(recibo)
+                .jsonPath("vagaCodigo").isEqualTo(checkin.get("vagaCodigo"));
+
+        testClient.put()
+                .uri("/api/v1/estacionamentos/check-out/{recibo}", recibo)
+                .headers(headers)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("recibo").isEqualTo(recibo)
+                .jsonPath("vagaCodigo").isEqualTo(checkin.get("vagaCodigo"))
+                .jsonPath("dataSaida").exists();
+
+        // O check-out grava antes o check-in pendente
+        Assertions.assertThat(escritorCheckIn.buscarPendente((String) recibo)).isNull();
+        Assertions.assertThat(contarRegistros(recibo)).isEqualTo(1);
+    }
+
+    @Test
+    public void persistirPendentes_ComVagaOcupadaAntesDaGravacao_TransferirCheckinParaOutraVaga() {
+        vagaLivreIndex.reconciliar(); // Carrega no índice as vagas livres inseridas pelo script
+
+        EstacionamentoCreateDto createDto = EstacionamentoCreateDto.builder()
+                .placa("WER-2222").marca("FIAT").modelo("PALIO 1.0")
+                .cor("AZUL").clienteCpf("09191773016")
+                .build();
+        Consumer<HttpHeaders> headers = JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com.br", "123456");
+
+        Map<String, Object> checkin = testClient.post().uri("/api/v1/estacionamentos/check-in")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(headers)
+                .bodyValue(createDto)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .returnResult().getResponseBody();
+        Object recibo = checkin.get("recibo");
+        Object vagaReservada = checkin.get("vagaCodigo");
+        Assertions.assertThat(contarRegistros(recibo)).isZero();
+
+        // Outro processo ocupa a vaga reservada antes de o escritor gravar o check-in
+        jdbcTemplate.update("update vagas set status = 'OCUPADA' where codigo = ?", vagaReservada);
+        escritorCheckIn.persistirPendentes();
+
+        String vagaGravada = jdbcTemplate.queryForObject(
+                "select v.codigo from clientes_tem_vagas cv join vagas v on v.id = cv.id_vaga where cv.numero_recibo = ?",
+                String.class, recibo);
+        Assertions.assertThat(vagaGravada).isNotEqualTo(vagaReservada);
+        Assertions.assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from clientes_tem_vagas where id_vaga = (select id from vagas where codigo = ?)",
+                Integer.class, vagaReservada)).isZero();
+
+        // A vaga informada no check-in fica registrada para a consulta do recibo e o check-out
+        testClient.get()
+                .uri("/api/v1/estacionamentos/check-in/{recibo}", recibo)
+                .headers(headers)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("vagaCodigo").isEqualTo(vagaGravada)
+                .jsonPath("vagaInformada").isEqualTo(vagaReservada);
+
+        testClient.put()
+                .uri("/api/v1/estacionamentos/check-out/{recibo}", recibo)
+                .headers(headers)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("vagaCodigo").isEqualTo(vagaGravada)
+                .jsonPath("vagaInformada").isEqualTo(vagaReservada);
+    }
+
+    @Test
+    public void persistirPendentes_ComVagaOcupadaESemVagaLivre_GravarCheckinEmConflitoSemDescartar() {
+        vagaLivreIndex.reconciliar(); // Carrega no índice as vagas livres inseridas pelo script
+
+        EstacionamentoCreateDto createDto = EstacionamentoCreateDto.builder()
+                .placa("WER-3333").marca("FIAT").modelo("PALIO 1.0")
+                .cor("AZUL").clienteCpf("09191773016")
+                .build();
+        Consumer<HttpHeaders> headers = JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com.br", "123456");
+
+        Map<String, Object> checkin = testClient.post().uri("/api/v1/estacionamentos/check-in")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(headers)
+                .bodyValue(createDto)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .returnResult().getResponseBody();
+        Object recibo = checkin.get("recibo");
+        Object vagaReservada = checkin.get("vagaCodigo");
+
+        // Outro veículo ocupa a vaga reservada e as demais vagas são ocupadas antes de o escritor gravar o check-in
+        jdbcTemplate.update("insert into clientes_tem_vagas (numero_recibo, placa, marca, modelo, cor, data_entrada, id_cliente, id_vaga) " +
+                "values ('20230316-101600', 'SIE-2030', 'FIAT', 'SIENA', 'PRETO', '2023-03-16 10:15:00', 22, " +
+                "(select id from vagas where codigo = ?))", vagaReservada);
+        jdbcTemplate.update("update vagas set status = 'OCUPADA'");
+        escritorCheckIn.persistirPendentes();
+
+        // O check-in respondido ao cliente é gravado na vaga reservada, com o conflito marcado nos dois registros
+        Assertions.assertThat(escritorCheckIn.buscarPendente((String) recibo)).isNull();
+        Assertions.assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from clientes_tem_vagas cv join vagas v on v.id = cv.id_vaga " +
+                        "where v.codigo = ? and cv.data_saida is null and cv.conflito_vaga = true",
+                Integer.class, vagaReservada)).isEqualTo(2);
+
+        testClient.get()
+                .uri("/api/v1/estacionamentos/check-in/{recibo}", recibo)
+                .headers(headers)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("vagaCodigo").isEqualTo(vagaReservada)
+                .jsonPath("conflitoVaga").isEqualTo(true);
+
+        // A vaga continua ocupada pelo outro veículo após o check-out
+        testClient.put()
+                .uri("/api/v1/estacionamentos/check-out/{recibo}", recibo)
+                .headers(headers)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("conflitoVaga").isEqualTo(true);
+        Assertions.assertThat(jdbcTemplate.queryForObject(
+                "select status from vagas where codigo = ?", String.class, vagaReservada)).isEqualTo("OCUPADA");
+
+        // Na saída do último veículo, a vaga é liberada
+        testClient.put()
+                .uri("/api/v1/estacionamentos/check-out/{recibo}", "20230316-101600")
+                .headers(headers)
+                .exchange()
+                .expectStatus().isOk();
+        Assertions.assertThat(jdbcTemplate.queryForObject(
+                "select status from vagas where codigo = ?", String.class, vagaReservada)).isEqualTo("LIVRE");
+    }
+
+    private Integer contarRegistros(Object recibo) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from clientes_tem_vagas where numero_recibo = ?", Integer.class, recibo);
+    }
+}
@@ -0,0 +1,30 @@
+package com.mballem.demoparkapi;
+
+import com.mballem.demoparkapi.util.FiltroBloom;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FiltroBloomTest {
+
+    private static final int CAPACIDADE = 100_000;
+
+    @Test
+    public void talvezContenha_NaCapacidade_RetornarTodosOsAdicionadosEPoucosFalsosPositivos() {
+        FiltroBloom filtro = new FiltroBloom(CAPACIDADE, 0.01);
+        for (int i = 0; i < CAPACIDADE; i++) {
+            filtro.adicionar("revogado-" + i);
+        }
+
+        for (int i = 0; i < CAPACIDADE; i++) {
+            Assertions.assertThat(filtro.talvezContenha("revogado-" + i)).as("valor adicionado %d", i).isTrue();
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 0; i < CAPACIDADE; i++) {
+            if (filtro.talvezContenha("valido-" + i)) {
+                falsosPositivos++;
+            }
+        }
+        Assertions.assertThat(falsosPositivos).isLessThan(CAPACIDADE * 2 / 100);
+    }
+}
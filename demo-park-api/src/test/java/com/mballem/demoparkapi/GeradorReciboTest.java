@@ -0,0 +1,81 @@
+package com.mballem.demoparkapi;
+
+import com.mballem.demoparkapi.util.GeradorRecibo;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class GeradorReciboTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    public void gerarRecibos_ComThreadsConcorrentes_RetornarRecibosUnicosEOrdenados() throws Exception {
+        // Mais de 4096 recibos por thread, para também exercitar o esgotamento da sequência de um milissegundo
+        verificarRecibosUnicos(10_000);
+    }
+
+    // Milhões de recibos entre as threads, fora da execução padrão dos testes: mvn test -Pbenchmark
+    @Tag("stress")
+    @Test
+    public void gerarRecibos_MilhoesEmThreadsConcorrentes_RetornarRecibosUnicosEOrdenados() throws Exception {
+        verificarRecibosUnicos(500_000);
+    }
+
+    @Test
+    public void criarGerador_ComNumeroDoNoInvalido_LancarExcecao() {
+        Assertions.assertThatThrownBy(() -> new GeradorRecibo(1024))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void verificarRecibosUnicos(int recibosPorThread) throws Exception {
+        GeradorRecibo gerador = new GeradorRecibo(7);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<long[]>> futuros = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futuros.add(executor.submit(() -> {
+                largada.await();
+                long[] ids = new long[recibosPorThread];
+                String anterior = "";
+                for (int i = 0; i < recibosPorThread; i++) {
+                    String recibo = gerador.gerar();
+                    if (recibo.length() != 13 || recibo.compareTo(anterior) <= 0) {
+                        throw new AssertionError("Recibo fora de ordem ou com tamanho inválido: " + recibo);
+                    }
+                    ids[i] = Long.parseLong(recibo, 36);
+                    anterior = recibo;
+                }
+                return ids;
+            }));
+        }
+
+        largada.countDown();
+        long[] todos = new long[THREADS * recibosPorThread];
+        int posicao = 0;
+        for (Future<long[]> futuro : futuros) {
+            long[] ids = futuro.get();
+            System.arraycopy(ids, 0, todos, posicao, ids.length);
+            posicao += ids.length;
+        }
+        executor.shutdown();
+
+        Arrays.sort(todos);
+        for (int i = 1; i < todos.length; i++) {
+            if (todos[i] == todos[i - 1]) {
+                Assertions.fail("Recibo duplicado: " + Long.toString(todos[i], 36).toUpperCase());
+            }
+        }
+        // Todos os recibos carregam o número do nó configurado
+        Assertions.assertThat((todos[0] >>> 12) & 1023).isEqualTo(7);
+    }
+}
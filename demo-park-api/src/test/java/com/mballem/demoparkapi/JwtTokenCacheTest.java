@@ -0,0 +1,98 @@
+package com.mballem.demoparkapi;
+
+import com.mballem.demoparkapi.jwt.JwtTokenCache;
+import com.mballem.demoparkapi.jwt.JwtUserDetails;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+public class JwtTokenCacheTest {
+
+    private final JwtTokenCache cache = new JwtTokenCache(10, 60_000);
+
+    @Test
+    public void buscar_TokenAdicionado_RetornarUserDetailsEContarAcerto() {
+        JwtUserDetails userDetails = new JwtUserDetails(100L, "ana@email.com", "ROLE_ADMIN");
+        cache.adicionar("token-ana", userDetails, new Date(System.currentTimeMillis() + 60_000));
+
+        Assertions.assertThat(cache.buscar("token-ana")).isSameAs(userDetails);
+        Assertions.assertThat(cache.buscar("token-bia")).isNull();
+        Assertions.assertThat(cache.getAcertos()).isEqualTo(1);
+        Assertions.assertThat(cache.getFalhas()).isEqualTo(1);
+        Assertions.assertThat(cache.getTaxaDeAcertos()).isEqualTo(0.5);
+    }
+
+    @Test
+    public void buscar_TokenComExpiracaoAnteriorAoTempoDeVida_RetornarNullAposExpiracao() {
+        cache.adicionar("token-ana", new JwtUserDetails(100L, "ana@email.com", "ROLE_ADMIN"),
+                new Date(System.currentTimeMillis() - 1));
+
+        Assertions.assertThat(cache.buscar("token-ana")).isNull();
+
+        cache.limpar();
+        Assertions.assertThat(cache.getTamanho()).isZero();
+    }
+
+    @Test
+    public void removerPorUsername_ComTokensDeDoisUsuarios_RemoverSomenteOsDoUsuario() {
+        Date expiracao = new Date(System.currentTimeMillis() + 60_000);
+        cache.adicionar("token-ana-1", new JwtUserDetails(100L, "ana@email.com", "ROLE_ADMIN"), expiracao);
+        cache.adicionar("token-ana-2", new JwtUserDetails(100L, "ana@email.com", "ROLE_ADMIN"), expiracao);
+        cache.adicionar("token-bia", new JwtUserDetails(101L, "bia@email.com", "ROLE_CLIENTE"), expiracao);
+
+        cache.removerPorUsername("ana@email.com");
+
+        Assertions.assertThat(cache.buscar("token-ana-1")).isNull();
+        Assertions.assertThat(cache.buscar("token-ana-2")).isNull();
+        Assertions.assertThat(cache.buscar("token-bia")).isNotNull();
+    }
+
+    @Test
+    public void adicionar_ComCacheCheio_DescartarTokenUsadoHaMaisTempo() {
+        JwtTokenCache cache = new JwtTokenCache(2, 60_000);
+        Date expiracao = new Date(System.currentTimeMillis() + 60_000);
+        cache.adicionar("token-ana", new JwtUserDetails(100L, "ana@email.com", "ROLE_ADMIN"), expiracao);
+        cache.adicionar("token-bia", new JwtUserDetails(101L, "bia@email.com", "ROLE_CLIENTE"), expiracao);
+        cache.buscar("token-ana");
+
+        cache.adicionar("token-bob", new JwtUserDetails(102L, "bob@email.com", "ROLE_CLIENTE"), expiracao);
+
+        Assertions.assertThat(cache.getTamanho()).isEqualTo(2);
+        Assertions.assertThat(cache.buscar("token-bob")).isNotNull();
+        Assertions.assertThat(cache.buscar("token-ana")).isNotNull();
+        Assertions.assertThat(cache.buscar("token-bia")).isNull();
+    }
+
+    @Test
+    public void adicionar_ComCapacidadeZero_NaoArmazenarToken() {
+        JwtTokenCache cache = new JwtTokenCache(0, 60_000);
+        cache.adicionar("token-ana", new JwtUserDetails(100L, "ana@email.com", "ROLE_ADMIN"),
+                new Date(System.currentTimeMillis() + 60_000));
+
+        Assertions.assertThat(cache.buscar("token-ana")).isNull();
+        Assertions.assertThat(cache.getTamanho()).isZero();
+    }
+
+    @Test
+    public void bindTo_ComBuscas_ExportarAcertosFalhasDescartesETamanho() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        cache.adicionar("token-ana", new JwtUserDetails(100L, "ana@email.com", "ROLE_ADMIN"),
+                new Date(System.currentTimeMillis() + 60_000));
+
+        cache.buscar("token-ana");
+        cache.buscar("token-ana");
+        cache.buscar("token-bia");
+
+        Assertions.assertThat(registry.get("cache.gets").tags("cache", "jwt-tokens", "result", "hit")
+                .functionCounter().count()).isEqualTo(2);
+        Assertions.assertThat(registry.get("cache.gets").tags("cache", "jwt-tokens", "result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+        Assertions.assertThat(registry.get("cache.evictions").tags("cache", "jwt-tokens")
+                .functionCounter().count()).isZero();
+        Assertions.assertThat(registry.get("cache.size").tags("cache", "jwt-tokens")
+                .gauge().value()).isEqualTo(1);
+    }
+}
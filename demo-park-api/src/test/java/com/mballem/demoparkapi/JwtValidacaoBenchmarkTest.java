@@ -0,0 +1,67 @@
+package com.mballem.demoparkapi;
+
+import com.mballem.demoparkapi.jwt.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compara o custo por requisição da validação do token JWT com a validação anterior, que verificava o token duas vezes
+ * (isTokenValid e getUsernameFromToken) e recriava a chave e o parser a cada verificação.
+ * Somente a equivalência das duas validações faz parte da execução padrão dos testes.
+ */
+@Slf4j
+public class JwtValidacaoBenchmarkTest {
+
+    private static final int REQUISICOES = 20_000;
+    private static final int AQUECIMENTO = 3;
+    private static final int RODADAS = 5;
+
+    private final String token = JwtUtils.JWT_BEARER + JwtUtils.createToken(100L, "ana@email.com", "ADMIN").getToken();
+
+    @Test
+    public void validar_ComParserReutilizado_RetornarMesmoUsuarioDaValidacaoAnterior() {
+        Assertions.assertThat(JwtUtils.getClaimsFromToken(token).getSubject())
+                .isEqualTo(usernameAnterior(token))
+                .isEqualTo("ana@email.com");
+    }
+
+    @Tag(Benchmark.TAG)
+    @Test
+    public void validar_ComParserReutilizado_CompararComAValidacaoAnterior() throws Exception {
+        double requisicoesPorSegundoAnterior = Benchmark.operacoesPorSegundo(REQUISICOES, AQUECIMENTO, RODADAS, () -> {
+            int tamanho = 0;
+            for (int i = 0; i < REQUISICOES; i++) {
+                tamanho += usernameAnterior(token).length();
+            }
+            return tamanho;
+        });
+        double requisicoesPorSegundo = Benchmark.operacoesPorSegundo(REQUISICOES, AQUECIMENTO, RODADAS, () -> {
+            int tamanho = 0;
+            for (int i = 0; i < REQUISICOES; i++) {
+                Claims claims = JwtUtils.getClaimsFromToken(token);
+                tamanho += claims.getSubject().length();
+            }
+            return tamanho;
+        });
+
+        log.debug("Validação de {} tokens: anterior {} requisições/s, parser reutilizado {} requisições/s ({}x)",
+                REQUISICOES, Math.round(requisicoesPorSegundoAnterior), Math.round(requisicoesPorSegundo),
+                String.format("%.1f", requisicoesPorSegundo / requisicoesPorSegundoAnterior));
+    }
+
+    // Validação anterior do JwtAuthorizationFilter, mantida somente para a comparação
+    private static String usernameAnterior(String token) {
+        String jwt = JwtUtils.refactorToken(token);
+        Jwts.parser().verifyWith(Keys.hmacShaKeyFor(JwtUtils.SECRET_KEY.getBytes(StandardCharsets.UTF_8)))
+                .build().parseSignedClaims(jwt); // isTokenValid
+        return Jwts.parser().verifyWith(Keys.hmacShaKeyFor(JwtUtils.SECRET_KEY.getBytes(StandardCharsets.UTF_8)))
+                .build().parseSignedClaims(jwt).getPayload().getSubject(); // getUsernameFromToken
+    }
+}
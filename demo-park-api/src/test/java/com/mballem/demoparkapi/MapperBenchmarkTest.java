@@ -0,0 +1,202 @@
+package com.mballem.demoparkapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mballem.demoparkapi.entity.Cliente;
+import com.mballem.demoparkapi.entity.ClienteVaga;
+import com.mballem.demoparkapi.entity.Usuario;
+import com.mballem.demoparkapi.entity.Vaga;
+import com.mballem.demoparkapi.web.dto.ClienteCreateDto;
+import com.mballem.demoparkapi.web.dto.ClienteResponseDto;
+import com.mballem.demoparkapi.web.dto.EstacionamentoCreateDto;
+import com.mballem.demoparkapi.web.dto.EstacionamentoResponseDto;
+import com.mballem.demoparkapi.web.dto.PageableDto;
+import com.mballem.demoparkapi.web.dto.UsuarioCreateDto;
+import com.mballem.demoparkapi.web.dto.UsuarioResponseDto;
+import com.mballem.demoparkapi.web.dto.VagaCreateDto;
+import com.mballem.demoparkapi.web.dto.VagaResponseDto;
+import com.mballem.demoparkapi.web.dto.mapper.ClienteMapper;
+import com.mballem.demoparkapi.web.dto.mapper.ClienteVagaMapper;
+import com.mballem.demoparkapi.web.dto.mapper.PageableMapper;
+import com.mballem.demoparkapi.web.dto.mapper.UsuarioMapper;
+import com.mballem.demoparkapi.web.dto.mapper.VagaMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.PropertyMap;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Compara cada mapper de web.dto.mapper com o mapeamento anterior, que criava um ModelMapper a cada chamada.
+ * Os objetos mapeados devem ter os mesmos campos e, nos DTOs de resposta, gerar o mesmo JSON.
+ * Somente a equivalência faz parte da execução padrão dos testes; a medição é marcada com {@link Benchmark#TAG}.
+ */
+@Slf4j
+public class MapperBenchmarkTest {
+
+    private static final int MAPEAMENTOS = 500;
+    private static final int AQUECIMENTO = 3;
+    private static final int RODADAS = 3;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    public void mapear_ComMappersEscritosAMao_RetornarMesmoResultadoDoModelMapper() {
+        for (Caso<?> caso : casos()) {
+            caso.verificar();
+        }
+    }
+
+    @Tag(Benchmark.TAG)
+    @Test
+    public void mapear_ComMappersEscritosAMao_CompararComModelMapper() throws Exception {
+        for (Caso<?> caso : casos()) {
+            caso.medir();
+        }
+    }
+
+    private List<Caso<?>> casos() {
+        return List.of(
+                new Caso<>("ClienteMapper.toCliente", new ClienteCreateDto("Ana Silva", "09191773016"),
+                        ClienteMapper::toCliente, dto -> new ModelMapper().map(dto, Cliente.class), false),
+                new Caso<>("ClienteMapper.toDto", cliente(),
+                        ClienteMapper::toDto, cliente -> new ModelMapper().map(cliente, ClienteResponseDto.class), true),
+                new Caso<>("VagaMapper.toVaga", new VagaCreateDto("A-01", "LIVRE"),
+                        VagaMapper::toVaga, dto -> new ModelMapper().map(dto, Vaga.class), false),
+                new Caso<>("VagaMapper.toDto", vaga(),
+                        VagaMapper::toDto, vaga -> new ModelMapper().map(vaga, VagaResponseDto.class), true),
+                new Caso<>("ClienteVagaMapper.toClienteVaga", estacionamentoCreateDto(),
+                        ClienteVagaMapper::toClienteVaga, dto -> new ModelMapper().map(dto, ClienteVaga.class), false),
+                new Caso<>("ClienteVagaMapper.toDto", clienteVaga(),
+                        ClienteVagaMapper::toDto, clienteVaga -> new ModelMapper().map(clienteVaga, EstacionamentoResponseDto.class), true),
+                new Caso<>("UsuarioMapper.toUsuario", new UsuarioCreateDto("ana@email.com", "123456"),
+                        UsuarioMapper::toUsuario, dto -> new ModelMapper().map(dto, Usuario.class), false),
+                new Caso<>("UsuarioMapper.toDto", usuario(),
+                        UsuarioMapper::toDto, MapperBenchmarkTest::usuarioToDtoAnterior, true),
+                new Caso<>("PageableMapper.toDto", new PageImpl<>(List.of(clienteResponseDto(), clienteResponseDto()), PageRequest.of(1, 2), 5),
+                        PageableMapper::toDto, page -> new ModelMapper().map(page, PageableDto.class), true)
+        );
+    }
+
+    // Mapeamento anterior do UsuarioMapper, com um PropertyMap criado para cada usuário
+    private static UsuarioResponseDto usuarioToDtoAnterior(Usuario usuario) {
+        String role = usuario.getRole().name().substring("ROLE_".length());
+        PropertyMap<Usuario, UsuarioResponseDto> props = new PropertyMap<Usuario, UsuarioResponseDto>() {
+            @Override
+            protected void configure() {
+                map().setRole(role);
+            }
+        };
+        ModelMapper mapper = new ModelMapper();
+        mapper.addMappings(props);
+        return mapper.map(usuario, UsuarioResponseDto.class);
+    }
+
+    private static Cliente cliente() {
+        Cliente cliente = new Cliente();
+        cliente.setId(21L);
+        cliente.setNome("Biatriz Rodrigues");
+        cliente.setCpf("09191773016");
+        return cliente;
+    }
+
+    private static ClienteResponseDto clienteResponseDto() {
+        return new ClienteResponseDto(21L, "Biatriz Rodrigues", "09191773016");
+    }
+
+    private static Vaga vaga() {
+        Vaga vaga = new Vaga();
+        vaga.setId(100L);
+        vaga.setCodigo("A-01");
+        vaga.setStatus(Vaga.StatusVaga.OCUPADA);
+        return vaga;
+    }
+
+    private static Usuario usuario() {
+        Usuario usuario = new Usuario();
+        usuario.setId(100L);
+        usuario.setUsername("ana@email.com");
+        usuario.setRole(Usuario.Role.ROLE_ADMIN);
+        return usuario;
+    }
+
+    private static EstacionamentoCreateDto estacionamentoCreateDto() {
+        return EstacionamentoCreateDto.builder()
+                .placa("FIT-1020").marca("FIAT").modelo("PALIO")
+                .cor("VERDE").clienteCpf("09191773016")
+                .build();
+    }
+
+    private static ClienteVaga clienteVaga() {
+        ClienteVaga clienteVaga = new ClienteVaga();
+        clienteVaga.setRecibo("20230313-101300");
+        clienteVaga.setPlaca("FIT-1020");
+        clienteVaga.setMarca("FIAT");
+        clienteVaga.setModelo("PALIO");
+        clienteVaga.setCor("VERDE");
+        clienteVaga.setCliente(cliente());
+        clienteVaga.setVaga(vaga());
+        clienteVaga.setDataEntrada(LocalDateTime.of(2023, 3, 13, 10, 15));
+        clienteVaga.setDataSaida(LocalDateTime.of(2023, 3, 13, 11, 45));
+        clienteVaga.setValor(new BigDecimal("12.75"));
+        clienteVaga.setDesconto(new BigDecimal("0.00"));
+        return clienteVaga;
+    }
+
+    private class Caso<T> {
+
+        private final String nome;
+        private final T entrada;
+        private final Function<T, Object> atual;
+        private final Function<T, Object> anterior;
+        private final boolean resposta;
+
+        Caso(String nome, T entrada, Function<T, Object> atual, Function<T, Object> anterior, boolean resposta) {
+            this.nome = nome;
+            this.entrada = entrada;
+            this.atual = atual;
+            this.anterior = anterior;
+            this.resposta = resposta;
+        }
+
+        void verificar() {
+            Object mapeado = atual.apply(entrada);
+            Object mapeadoAnterior = anterior.apply(entrada);
+            // Campo a campo, inclusive objetos associados, sem depender do equals das entidades
+            Assertions.assertThat(mapeado).as(nome).usingRecursiveComparison().isEqualTo(mapeadoAnterior);
+            if (resposta) {
+                JsonNode json = objectMapper.valueToTree(mapeado);
+                JsonNode jsonAnterior = objectMapper.valueToTree(mapeadoAnterior);
+                Assertions.assertThat(json).as(nome).isEqualTo(jsonAnterior);
+            }
+        }
+
+        void medir() throws Exception {
+            double mapeamentosPorSegundoAnterior = medir(anterior);
+            double mapeamentosPorSegundo = medir(atual);
+
+            log.debug("{}: ModelMapper {} mapeamentos/s, escrito à mão {} mapeamentos/s ({}x)",
+                    nome, Math.round(mapeamentosPorSegundoAnterior), Math.round(mapeamentosPorSegundo),
+                    String.format("%.1f", mapeamentosPorSegundo / mapeamentosPorSegundoAnterior));
+        }
+
+        private double medir(Function<T, Object> mapeamento) throws Exception {
+            return Benchmark.operacoesPorSegundo(MAPEAMENTOS, AQUECIMENTO, RODADAS, () -> {
+                Object resultado = null;
+                for (int i = 0; i < MAPEAMENTOS; i++) {
+                    resultado = mapeamento.apply(entrada);
+                }
+                return resultado;
+            });
+        }
+    }
+}
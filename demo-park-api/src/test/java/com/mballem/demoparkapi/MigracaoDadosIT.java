@@ -0,0 +1,44 @@
+package com.mballem.demoparkapi;
+
+import com.mballem.demoparkapi.repository.MigracaoDadosRepository;
+import com.mballem.demoparkapi.service.MigracaoDadosService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Sql(scripts = "/sql/estacionamentos/estacionamentos-insert.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/estacionamentos/estacionamentos-delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class MigracaoDadosIT {
+
+    @Autowired
+    MigracaoDadosService migracaoDadosService;
+    @Autowired
+    MigracaoDadosRepository migracaoDadosRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void migrar_TotalDeEstacionamentosNaoMigrado_CalcularDoHistoricoUmaUnicaVez() {
+        Assertions.assertThat(migracaoDadosRepository.existsById("clientes-total-estacionamentos")).isTrue();
+        migracaoDadosRepository.deleteById("clientes-total-estacionamentos");
+        jdbcTemplate.update("update clientes_tem_vagas set data_saida = '2023-03-14 12:15:00' where id_cliente = 22");
+
+        migracaoDadosService.migrar();
+
+        Assertions.assertThat(totalEstacionamentos(22)).isEqualTo(2);
+        Assertions.assertThat(totalEstacionamentos(21)).isZero();
+
+        // Já registrada, a migração não é executada novamente
+        jdbcTemplate.update("update clientes set total_estacionamentos = 7 where id = 22");
+        migracaoDadosService.migrar();
+        Assertions.assertThat(totalEstacionamentos(22)).isEqualTo(7);
+    }
+
+    private Long totalEstacionamentos(long clienteId) {
+        return jdbcTemplate.queryForObject("select total_estacionamentos from clientes where id = ?", Long.class, clienteId);
+    }
+}
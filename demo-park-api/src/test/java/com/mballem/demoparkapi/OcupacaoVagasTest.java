@@ -0,0 +1,70 @@
+package com.mballem.demoparkapi;
+
+import com.mballem.demoparkapi.entity.Vaga;
+import com.mballem.demoparkapi.repository.VagaRepository;
+import com.mballem.demoparkapi.repository.projection.ContagemStatusProjection;
+import com.mballem.demoparkapi.service.Ocupacao;
+import com.mballem.demoparkapi.service.OcupacaoVagas;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+public class OcupacaoVagasTest {
+
+    private final VagaRepository vagaRepository = Mockito.mock(VagaRepository.class);
+    private final OcupacaoVagas ocupacaoVagas = new OcupacaoVagas(vagaRepository);
+
+    @Test
+    public void liberar_SemVagasOcupadas_NaoFicarNegativoEReconciliar() {
+        ocupacaoVagas.liberar();
+
+        Ocupacao ocupacao = ocupacaoVagas.buscar();
+        Assertions.assertThat(ocupacao.getLivres()).isEqualTo(1);
+        Assertions.assertThat(ocupacao.getOcupadas()).isZero();
+
+        Mockito.when(vagaRepository.countGroupByStatus()).thenReturn(contagem(3, 2));
+        ocupacaoVagas.reconciliarSeDivergente();
+        Assertions.assertThat(ocupacaoVagas.buscar().getLivres()).isEqualTo(3);
+        Assertions.assertThat(ocupacaoVagas.buscar().getOcupadas()).isEqualTo(2);
+
+        ocupacaoVagas.reconciliarSeDivergente(); // Sem divergência, não consulta o banco novamente
+        Mockito.verify(vagaRepository, Mockito.times(1)).countGroupByStatus();
+    }
+
+    @Test
+    public void reconciliar_ComAlteracaoDuranteAContagem_RepetirAContagem() {
+        Mockito.when(vagaRepository.countGroupByStatus())
+                .thenAnswer(invocacao -> {
+                    ocupacaoVagas.adicionar(Vaga.StatusVaga.LIVRE); // Alteração aplicada enquanto a contagem é feita
+                    return contagem(4, 1);
+                })
+                .thenReturn(contagem(5, 1));
+
+        ocupacaoVagas.reconciliar();
+
+        Ocupacao ocupacao = ocupacaoVagas.buscar();
+        Assertions.assertThat(ocupacao.getLivres()).isEqualTo(5);
+        Assertions.assertThat(ocupacao.getOcupadas()).isEqualTo(1);
+        Mockito.verify(vagaRepository, Mockito.times(2)).countGroupByStatus();
+    }
+
+    private static List<ContagemStatusProjection> contagem(long livres, long ocupadas) {
+        return List.of(contagem(Vaga.StatusVaga.LIVRE, livres), contagem(Vaga.StatusVaga.OCUPADA, ocupadas));
+    }
+
+    private static ContagemStatusProjection contagem(Vaga.StatusVaga status, long total) {
+        return new ContagemStatusProjection() {
+            @Override
+            public Vaga.StatusVaga getStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+}
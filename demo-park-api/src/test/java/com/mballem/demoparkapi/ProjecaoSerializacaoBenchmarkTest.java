@@ -0,0 +1,122 @@
+package com.mballem.demoparkapi;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mballem.demoparkapi.repository.projection.ClienteVagaProjection;
+import lombok.extern.slf4j.Slf4j;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Compara a serialização de páginas grandes de ClienteVagaProjection com a antiga projeção por interface,
+ * criada pelo Spring Data como um proxy sobre um mapa com as colunas da linha.
+ * Cada rodada cria as projeções a partir das linhas e as serializa, como acontece em uma requisição.
+ * Somente a equivalência do JSON faz parte da execução padrão dos testes.
+ */
+@Slf4j
+public class ProjecaoSerializacaoBenchmarkTest {
+
+    private static final int LINHAS = 50_000;
+    private static final int AQUECIMENTO = 3;
+    private static final int RODADAS = 5;
+    private static final String[] COLUNAS = {"placa", "marca", "modelo", "cor", "clienteCpf", "recibo",
+            "dataEntrada", "dataSaida", "vagaCodigo", "valor", "desconto"};
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final SpelAwareProxyProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+    @Test
+    public void serializar_RegistrosAbertoEFechado_RecordComMesmoJsonDaProjecaoPorInterface() {
+        List<Object[]> linhas = criarLinhas(2);
+
+        for (Object[] linha : linhas) {
+            // Mesmos campos e formatos; o proxy pode expor propriedades próprias, que não fazem parte da projeção
+            ObjectNode json = objectMapper.valueToTree(toRecord(linha));
+            ObjectNode jsonInterface = objectMapper.valueToTree(toInterface(linha));
+            Assertions.assertThat(json).isEqualTo(jsonInterface.retain(COLUNAS));
+        }
+    }
+
+    @Tag(Benchmark.TAG)
+    @Test
+    public void serializar_PaginaGrande_CompararRecordComProjecaoPorInterface() throws Exception {
+        List<Object[]> linhas = criarLinhas(LINHAS);
+
+        double linhasPorSegundoInterface = medir(linhas, this::toInterface);
+        double linhasPorSegundoRecord = medir(linhas, this::toRecord);
+
+        log.debug("Serialização de {} linhas: projeção por interface {} linhas/s, record {} linhas/s ({}x)",
+                LINHAS, Math.round(linhasPorSegundoInterface), Math.round(linhasPorSegundoRecord),
+                String.format("%.1f", linhasPorSegundoRecord / linhasPorSegundoInterface));
+    }
+
+    private double medir(List<Object[]> linhas, Function<Object[], Object> projecao) throws Exception {
+        return Benchmark.operacoesPorSegundo(LINHAS, AQUECIMENTO, RODADAS, () -> serializar(linhas, projecao));
+    }
+
+    private int serializar(List<Object[]> linhas, Function<Object[], Object> projecao) throws Exception {
+        List<Object> pagina = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            pagina.add(projecao.apply(linha));
+        }
+        return objectMapper.writeValueAsBytes(pagina).length;
+    }
+
+    private Object toRecord(Object[] linha) {
+        return new ClienteVagaProjection((Long) linha[11], (String) linha[0], (String) linha[1], (String) linha[2], (String) linha[3],
+                (String) linha[4], (String) linha[5], (LocalDateTime) linha[6], (LocalDateTime) linha[7],
+                (String) linha[8], (BigDecimal) linha[9], (BigDecimal) linha[10]);
+    }
+
+    private Object toInterface(Object[] linha) {
+        Map<String, Object> colunas = new LinkedHashMap<>();
+        for (int i = 0; i < COLUNAS.length; i++) {
+            colunas.put(COLUNAS[i], linha[i]);
+        }
+        return projectionFactory.createProjection(ClienteVagaInterface.class, colunas);
+    }
+
+    private static List<Object[]> criarLinhas(int quantidade) {
+        List<Object[]> linhas = new ArrayList<>(quantidade);
+        LocalDateTime entrada = LocalDateTime.of(2023, 3, 13, 10, 15);
+        for (int i = 0; i < quantidade; i++) {
+            boolean fechado = i % 2 == 1;
+            linhas.add(new Object[]{"FIT-" + (1000 + i % 9000), "FIAT", "PALIO", "VERDE", "98401203015",
+                    String.format("20230313-%06d", i), entrada.plusMinutes(i),
+                    fechado ? entrada.plusMinutes(i + 90) : null, "A-" + (i % 100),
+                    fechado ? new BigDecimal("12.25") : null, fechado ? new BigDecimal("0.00") : null, (long) i});
+        }
+        return linhas;
+    }
+
+    // Antiga projeção por interface, mantida somente para a comparação
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public interface ClienteVagaInterface {
+        String getPlaca();
+        String getMarca();
+        String getModelo();
+        String getCor();
+        String getClienteCpf();
+        String getRecibo();
+        @JsonFormat(pattern = "yyyy-MM-dd hh:mm:ss")
+        LocalDateTime getDataEntrada();
+        @JsonFormat(pattern = "yyyy-MM-dd hh:mm:ss")
+        LocalDateTime getDataSaida();
+        String getVagaCodigo();
+        BigDecimal getValor();
+        BigDecimal getDesconto();
+    }
+}
@@ -0,0 +1,124 @@
+package com.mballem.demoparkapi;
+
+import com.mballem.demoparkapi.service.JasperService;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jasperreports.engine.JRPrintElement;
+import net.sf.jasperreports.engine.JRPrintFrame;
+import net.sf.jasperreports.engine.JRPrintPage;
+import net.sf.jasperreports.engine.JRPrintText;
+import net.sf.jasperreports.engine.JasperExportManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Sql(scripts = "/sql/estacionamentos/estacionamentos-insert.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/estacionamentos/estacionamentos-delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class RelatorioConcorrenciaIT {
+
+    private static final String[] CPFS = {"09191773016", "98401203015"};
+
+    @Autowired
+    JasperService jasperService;
+
+    @Test
+    public void preencher_CentenasDeRelatoriosEmParalelo_RetornarCadaRelatorioComOSeuCpf() throws Exception {
+        int relatorios = 300;
+        ExecutorService executor = Executors.newFixedThreadPool(50);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<String>> textos = new ArrayList<>(relatorios);
+        for (int i = 0; i < relatorios; i++) {
+            String cpf = CPFS[i % CPFS.length];
+            textos.add(executor.submit(() -> {
+                largada.await();
+                JasperPrint print = jasperService.preencher("estacionamentos", Map.of("CPF", cpf));
+                org.assertj.core.api.Assertions.assertThat(JasperExportManager.exportReportToPdf(print)).isNotEmpty();
+                return texto(print);
+            }));
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (int i = 0; i < relatorios; i++) {
+            // Conexões não devolvidas ao pool fariam os relatórios seguintes aguardarem até o timeout
+            String texto = textos.get(i).get(60, TimeUnit.SECONDS);
+            org.assertj.core.api.Assertions.assertThat(texto)
+                    .as("relatório %d", i)
+                    .contains(formatar(CPFS[i % CPFS.length]))
+                    .doesNotContain(formatar(CPFS[(i + 1) % CPFS.length]));
+        }
+        long duracao = (System.nanoTime() - inicio) / 1_000_000;
+        executor.shutdown();
+
+        log.debug("{} relatórios gerados em paralelo em {} ms", relatorios, duracao);
+    }
+
+    @Test
+    public void gerarPdf_ComVirtualizador_EscreverPdfNaSaida() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        ReflectionTestUtils.setField(jasperService, "virtualizadorHabilitado", true);
+        try {
+            jasperService.gerarPdf("estacionamentos", Map.of("CPF", CPFS[1]), () -> saida);
+        } finally {
+            ReflectionTestUtils.setField(jasperService, "virtualizadorHabilitado", false);
+        }
+
+        org.assertj.core.api.Assertions.assertThat(new String(saida.toByteArray(), 0, 5, StandardCharsets.US_ASCII)).isEqualTo("%PDF-");
+    }
+
+    @Test
+    public void gerarPdf_ComFalhaNoPreenchimento_NaoAbrirASaida() {
+        AtomicBoolean aberta = new AtomicBoolean();
+        ReflectionTestUtils.setField(jasperService, "virtualizadorHabilitado", true);
+        try {
+            // O parâmetro CPF do relatório é uma String
+            org.assertj.core.api.Assertions.assertThatThrownBy(() -> jasperService.gerarPdf("estacionamentos", Map.<String, Object>of("CPF", 98401203015L), () -> {
+                aberta.set(true);
+                return new ByteArrayOutputStream();
+            })).isInstanceOf(RuntimeException.class);
+        } finally {
+            ReflectionTestUtils.setField(jasperService, "virtualizadorHabilitado", false);
+        }
+
+        org.assertj.core.api.Assertions.assertThat(aberta).isFalse();
+    }
+
+    private static String texto(JasperPrint print) {
+        StringBuilder texto = new StringBuilder();
+        for (JRPrintPage page : print.getPages()) {
+            adicionarTexto(page.getElements(), texto);
+        }
+        return texto.toString();
+    }
+
+    private static void adicionarTexto(List<JRPrintElement> elementos, StringBuilder texto) {
+        for (JRPrintElement elemento : elementos) {
+            if (elemento instanceof JRPrintText text) {
+                texto.append(text.getFullText()).append('\n');
+            } else if (elemento instanceof JRPrintFrame frame) {
+                adicionarTexto(frame.getElements(), texto);
+            }
+        }
+    }
+
+    // Mesmo formato do CPF impresso no relatório
+    private static String formatar(String cpf) {
+        return cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." + cpf.substring(6, 9) + "-" + cpf.substring(9, 11);
+    }
+}
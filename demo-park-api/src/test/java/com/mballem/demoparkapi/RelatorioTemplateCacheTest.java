@@ -0,0 +1,46 @@
+package com.mballem.demoparkapi;
+
+import com.mballem.demoparkapi.service.RelatorioTemplateCache;
+import net.sf.jasperreports.engine.JasperReport;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+public class RelatorioTemplateCacheTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    public void buscar_SemDiretorio_CarregarDoClasspathUmaUnicaVez() {
+        RelatorioTemplateCache cache = new RelatorioTemplateCache(new DefaultResourceLoader(), "");
+
+        JasperReport relatorio = cache.buscar("estacionamentos");
+
+        Assertions.assertThat(relatorio).isNotNull();
+        Assertions.assertThat(cache.buscar("estacionamentos")).isSameAs(relatorio);
+    }
+
+    @Test
+    public void recarregarModificados_ComArquivoAlterado_RecarregarDoDiretorio() throws Exception {
+        Path arquivo = diretorio.resolve("estacionamentos.jasper");
+        try (InputStream stream = new DefaultResourceLoader().getResource("classpath:reports/estacionamentos.jasper").getInputStream()) {
+            Files.copy(stream, arquivo);
+        }
+        RelatorioTemplateCache cache = new RelatorioTemplateCache(new DefaultResourceLoader(), diretorio.toString());
+        JasperReport relatorio = cache.buscar("estacionamentos");
+
+        cache.recarregarModificados();
+        Assertions.assertThat(cache.buscar("estacionamentos")).isSameAs(relatorio);
+
+        Files.setLastModifiedTime(arquivo, FileTime.fromMillis(Files.getLastModifiedTime(arquivo).toMillis() + 10_000));
+        cache.recarregarModificados();
+        Assertions.assertThat(cache.buscar("estacionamentos")).isNotSameAs(relatorio);
+    }
+}
@@ -0,0 +1,57 @@
+package com.mballem.demoparkapi;
+
+import com.mballem.demoparkapi.util.TabelaTarifas;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Compara o cálculo de custo e desconto da TabelaTarifas, em centavos, com o cálculo anterior em double e BigDecimal.
+ * Cada operação calcula o custo e o desconto de um check-out e os converte para reais, como no check-out.
+ * A equivalência dos resultados é verificada pelo {@link TabelaTarifasTest}.
+ */
+@Slf4j
+@Tag(Benchmark.TAG)
+public class TabelaTarifasBenchmarkTest {
+
+    private static final int CALCULOS = 100_000;
+    private static final int AQUECIMENTO = 5;
+    private static final int RODADAS = 10;
+
+    private final TabelaTarifas tabelaTarifas = new TabelaTarifas(
+            new BigDecimal("5.00"), new BigDecimal("9.25"), new BigDecimal("1.75"), 30);
+
+    @Test
+    public void calcularCustoEDesconto_EmCentavos_CompararComOCalculoAnterior() throws Exception {
+        LocalDateTime entrada = LocalDateTime.of(2024, 3, 10, 23, 47, 12);
+        LocalDateTime[] saidas = new LocalDateTime[CALCULOS];
+        for (int i = 0; i < CALCULOS; i++) {
+            saidas[i] = entrada.plusMinutes(i % (30 * 24 * 60));
+        }
+
+        double calculosPorSegundoAnterior = Benchmark.operacoesPorSegundo(CALCULOS, AQUECIMENTO, RODADAS, () -> {
+            BigDecimal total = BigDecimal.ZERO;
+            for (int i = 0; i < CALCULOS; i++) {
+                BigDecimal custo = TabelaTarifasTest.calcularCustoAnterior(entrada, saidas[i]);
+                total = total.add(custo).add(TabelaTarifasTest.calcularDescontoAnterior(custo, i));
+            }
+            return total;
+        });
+        double calculosPorSegundo = Benchmark.operacoesPorSegundo(CALCULOS, AQUECIMENTO, RODADAS, () -> {
+            BigDecimal total = BigDecimal.ZERO;
+            for (int i = 0; i < CALCULOS; i++) {
+                long custo = tabelaTarifas.calcularCusto(entrada, saidas[i]);
+                total = total.add(TabelaTarifas.toReais(custo))
+                        .add(TabelaTarifas.toReais(tabelaTarifas.calcularDesconto(custo, i)));
+            }
+            return total;
+        });
+
+        log.debug("Custo e desconto de {} check-outs: cálculo anterior {} cálculos/s, em centavos {} cálculos/s ({}x)",
+                CALCULOS, Math.round(calculosPorSegundoAnterior), Math.round(calculosPorSegundo),
+                String.format("%.1f", calculosPorSegundo / calculosPorSegundoAnterior));
+    }
+}
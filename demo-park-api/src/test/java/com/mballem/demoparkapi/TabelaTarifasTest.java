@@ -0,0 +1,80 @@
+package com.mballem.demoparkapi;
+
+import com.mballem.demoparkapi.util.TabelaTarifas;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public class TabelaTarifasTest {
+
+    // 30 dias em minutos
+    private static final int MINUTOS_MAXIMO = 30 * 24 * 60;
+
+    private final TabelaTarifas tabelaTarifas = new TabelaTarifas(
+            new BigDecimal("5.00"), new BigDecimal("9.25"), new BigDecimal("1.75"), 30);
+
+    @Test
+    public void calcularCustoEDesconto_EmTodosOsMinutosAte30Dias_RetornarMesmoResultadoDoCalculoAnterior() {
+        LocalDateTime entrada = LocalDateTime.of(2024, 3, 10, 23, 47, 12);
+        long[] numerosDeVezes = {0, 1, 9, 10, 11, 20, 100};
+
+        for (int minutos = 0; minutos <= MINUTOS_MAXIMO; minutos++) {
+            LocalDateTime saida = entrada.plusMinutes(minutos).plusSeconds(minutos % 60);
+
+            BigDecimal custoAnterior = calcularCustoAnterior(entrada, saida);
+            long custo = tabelaTarifas.calcularCusto(entrada, saida);
+            Assertions.assertThat(TabelaTarifas.toReais(custo))
+                    .as("custo para %d minutos", minutos)
+                    .isEqualTo(custoAnterior);
+
+            for (long numeroDeVezes : numerosDeVezes) {
+                Assertions.assertThat(TabelaTarifas.toReais(tabelaTarifas.calcularDesconto(custo, numeroDeVezes)))
+                        .as("desconto para %d minutos e %d utilizações", minutos, numeroDeVezes)
+                        .isEqualTo(calcularDescontoAnterior(custoAnterior, numeroDeVezes));
+            }
+        }
+    }
+
+    @Test
+    public void calcularDesconto_EmTodosOsCustosAte1000Reais_RetornarMesmoResultadoDoCalculoAnterior() {
+        for (long custo = 0; custo <= 100_000; custo++) {
+            Assertions.assertThat(TabelaTarifas.toReais(tabelaTarifas.calcularDesconto(custo, 10)))
+                    .as("desconto para %d centavos", custo)
+                    .isEqualTo(calcularDescontoAnterior(TabelaTarifas.toReais(custo), 10));
+        }
+    }
+
+    // Cálculo anterior em double, mantido como referência para este teste e para o TabelaTarifasBenchmarkTest
+
+    static BigDecimal calcularCustoAnterior(LocalDateTime entrada, LocalDateTime saida) {
+        long minutes = entrada.until(saida, ChronoUnit.MINUTES);
+        double total = 0.0;
+
+        if (minutes <= 15) {
+            total = 5.00;
+        } else if (minutes <= 60) {
+            total = 9.25;
+        } else {
+            long addicionalMinutes = minutes - 60;
+            Double totalParts = ((double) addicionalMinutes / 15);
+            if (totalParts > totalParts.intValue()) {
+                total += 9.25 + (1.75 * (totalParts.intValue() + 1));
+            } else {
+                total += 9.25 + (1.75 * totalParts.intValue());
+            }
+        }
+
+        return new BigDecimal(total).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    static BigDecimal calcularDescontoAnterior(BigDecimal custo, long numeroDeVezes) {
+        BigDecimal desconto = ((numeroDeVezes > 0) && (numeroDeVezes % 10 == 0))
+                ? custo.multiply(new BigDecimal(0.30))
+                : new BigDecimal(0);
+        return desconto.setScale(2, RoundingMode.HALF_EVEN);
+    }
+}
@@ -0,0 +1,71 @@
+package com.mballem.demoparkapi;
+
+import com.mballem.demoparkapi.entity.Cliente;
+import com.mballem.demoparkapi.entity.ClienteVaga;
+import com.mballem.demoparkapi.entity.Vaga;
+import com.mballem.demoparkapi.repository.ClienteVagaRepository;
+import com.mballem.demoparkapi.service.TicketAbertoCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDateTime;
+
+public class TicketAbertoCacheTest {
+
+    private final TicketAbertoCache cache = new TicketAbertoCache(Mockito.mock(ClienteVagaRepository.class), 2);
+
+    @Test
+    public void adicionar_ComCacheCheio_DescartarOTicketConsultadoHaMaisTempo() {
+        cache.adicionar(clienteVaga("20230313-000001"));
+        cache.adicionar(clienteVaga("20230313-000002"));
+        Assertions.assertThat(cache.buscar("20230313-000001")).isNotNull(); // O primeiro passa a ser o mais recente
+
+        cache.adicionar(clienteVaga("20230313-000003"));
+
+        Assertions.assertThat(cache.getTamanho()).isEqualTo(2);
+        Assertions.assertThat(cache.buscar("20230313-000001")).isNotNull();
+        Assertions.assertThat(cache.buscar("20230313-000002")).isNull();
+        Assertions.assertThat(cache.buscar("20230313-000003")).isNotNull();
+    }
+
+    @Test
+    public void bindTo_ComConsultas_ExportarAcertosFalhasDescartesETamanho() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.adicionar(clienteVaga("20230313-000001"));
+        cache.adicionar(clienteVaga("20230313-000002"));
+        cache.adicionar(clienteVaga("20230313-000003"));
+        cache.buscar("20230313-000003");
+        cache.buscar("20230313-000001");
+
+        Assertions.assertThat(registry.get("cache.gets").tags("cache", "tickets-abertos", "result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        Assertions.assertThat(registry.get("cache.gets").tags("cache", "tickets-abertos", "result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+        Assertions.assertThat(registry.get("cache.evictions").tags("cache", "tickets-abertos")
+                .functionCounter().count()).isEqualTo(1);
+        Assertions.assertThat(registry.get("cache.size").tags("cache", "tickets-abertos")
+                .gauge().value()).isEqualTo(2);
+    }
+
+    private static ClienteVaga clienteVaga(String recibo) {
+        Cliente cliente = new Cliente();
+        cliente.setCpf("09191773016");
+        Vaga vaga = new Vaga();
+        vaga.setCodigo("A-01");
+
+        ClienteVaga clienteVaga = new ClienteVaga();
+        clienteVaga.setRecibo(recibo);
+        clienteVaga.setPlaca("FIT-1020");
+        clienteVaga.setMarca("FIAT");
+        clienteVaga.setModelo("PALIO");
+        clienteVaga.setCor("VERDE");
+        clienteVaga.setCliente(cliente);
+        clienteVaga.setVaga(vaga);
+        clienteVaga.setDataEntrada(LocalDateTime.of(2023, 3, 13, 10, 15));
+        return clienteVaga;
+    }
+}
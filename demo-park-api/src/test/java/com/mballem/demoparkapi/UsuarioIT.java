@@ -1,5 +1,6 @@
 package com.mballem.demoparkapi;
 
+import com.mballem.demoparkapi.web.dto.CursorPageDto;
 import com.mballem.demoparkapi.web.dto.UsuarioCreateDto;
 import com.mballem.demoparkapi.web.dto.UsuarioResponseDto;
 import com.mballem.demoparkapi.web.dto.UsuarioSenhaDto;
@@ -345,17 +346,100 @@ public class UsuarioIT {
 
     @Test
     public void listarUsuarios_ComUsuarioComPermissao_RetornarListaDeUsuariosComStatus200() {
-        List<UsuarioResponseDto> responseBody = testClient
+        CursorPageDto responseBody = testClient
                 .get()
                 .uri("/api/v1/usuarios")
                 .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com", "123456"))
                 .exchange()
                 .expectStatus().isOk()
-                .expectBodyList(UsuarioResponseDto.class)
+                .expectBody(CursorPageDto.class)
                 .returnResult().getResponseBody();
 
         org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
-        org.assertj.core.api.Assertions.assertThat(responseBody.size()).isEqualTo(3);
+        org.assertj.core.api.Assertions.assertThat(responseBody.getContent().size()).isEqualTo(3);
+        org.assertj.core.api.Assertions.assertThat(responseBody.isLast()).isTrue();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getNext()).isNull();
+    }
+
+    @Test
+    public void listarUsuarios_ComCursorDaPaginaAnterior_RetornarProximaPaginaComStatus200() {
+        CursorPageDto responseBody = testClient
+                .get()
+                .uri("/api/v1/usuarios?size=2")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CursorPageDto.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getContent().size()).isEqualTo(2);
+        org.assertj.core.api.Assertions.assertThat(responseBody.isLast()).isFalse();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getNext()).isNotNull();
+
+        responseBody = testClient
+                .get()
+                .uri("/api/v1/usuarios?size=2&after={after}", responseBody.getNext())
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CursorPageDto.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getContent().size()).isEqualTo(1);
+        org.assertj.core.api.Assertions.assertThat(responseBody.isLast()).isTrue();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getNext()).isNull();
+    }
+
+    @Test
+    public void listarUsuarios_ComCursorVazio_RetornarPrimeiraPaginaComStatus200() {
+        CursorPageDto responseBody = testClient
+                .get()
+                .uri("/api/v1/usuarios?size=2&after=")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CursorPageDto.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getContent().size()).isEqualTo(2);
+        org.assertj.core.api.Assertions.assertThat(responseBody.isLast()).isFalse();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getNext()).isNotNull();
+    }
+
+    @Test
+    public void listarUsuarios_ComCursorInvalido_RetornarErrorMessageComStatus400() {
+        ErrorMessage responseBody = testClient
+                .get()
+                .uri("/api/v1/usuarios?after=invalido")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com", "123456"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(ErrorMessage.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        org.assertj.core.api.Assertions.assertThat(responseBody.getStatus()).isEqualTo(400);
+    }
+
+    @Test
+    public void exportarUsuarios_ComUsuarioComPermissao_RetornarUmUsuarioPorLinhaComStatus200() {
+        String responseBody = testClient
+                .get()
+                .uri("/api/v1/usuarios/stream")
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        org.assertj.core.api.Assertions.assertThat(responseBody).isNotNull();
+        List<String> linhas = responseBody.lines().toList();
+        org.assertj.core.api.Assertions.assertThat(linhas).hasSize(3);
+        org.assertj.core.api.Assertions.assertThat(linhas.get(0)).contains("\"username\":\"ana@email.com\"");
     }
 
     @Test
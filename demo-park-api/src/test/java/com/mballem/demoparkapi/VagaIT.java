@@ -1,6 +1,8 @@
 package com.mballem.demoparkapi;
 
+import com.mballem.demoparkapi.web.dto.OcupacaoResponseDto;
 import com.mballem.demoparkapi.web.dto.VagaCreateDto;
+import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -135,4 +137,36 @@ public class VagaIT {
                 .jsonPath("method").isEqualTo("POST")
                 .jsonPath("path").isEqualTo("/api/v1/vagas");
     }
+
+    @Test
+    public void buscarOcupacao_AposCriarVagaLivre_RetornarContadoresAtualizados() {
+        OcupacaoResponseDto antes = testClient
+                .get()
+                .uri("/api/v1/vagas/ocupacao")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(OcupacaoResponseDto.class)
+                .returnResult().getResponseBody();
+
+        testClient
+                .post()
+                .uri("/api/v1/vagas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(JwtAuthentication.getHeaderAuthorization(testClient, "ana@email.com", "123456"))
+                .bodyValue(new VagaCreateDto("A-05", "LIVRE"))
+                .exchange()
+                .expectStatus().isCreated();
+
+        OcupacaoResponseDto depois = testClient
+                .get()
+                .uri("/api/v1/vagas/ocupacao")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(OcupacaoResponseDto.class)
+                .returnResult().getResponseBody();
+
+        Assertions.assertThat(depois.getLivres()).isEqualTo(antes.getLivres() + 1);
+        Assertions.assertThat(depois.getOcupadas()).isEqualTo(antes.getOcupadas());
+        Assertions.assertThat(depois.getTotal()).isEqualTo(antes.getTotal() + 1);
+    }
 }
@@ -0,0 +1,71 @@
+package com.mballem.demoparkapi;
+
+import com.mballem.demoparkapi.entity.Vaga;
+import com.mballem.demoparkapi.exception.VagaDisponivelException;
+import com.mballem.demoparkapi.repository.VagaRepository;
+import com.mballem.demoparkapi.service.OcupacaoVagas;
+import com.mballem.demoparkapi.service.VagaLivreIndex;
+import com.mballem.demoparkapi.service.VagaService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static com.mballem.demoparkapi.entity.Vaga.StatusVaga.LIVRE;
+import static com.mballem.demoparkapi.entity.Vaga.StatusVaga.OCUPADA;
+
+public class VagaServiceTest {
+
+    private static final long VAGAS = 100;
+
+    private final VagaRepository vagaRepository = Mockito.mock(VagaRepository.class);
+    private final VagaLivreIndex vagaLivreIndex = new VagaLivreIndex(vagaRepository);
+    private final VagaService vagaService = new VagaService(vagaRepository, vagaLivreIndex, new OcupacaoVagas(vagaRepository));
+
+    // Vagas livres no "banco"; o índice em memória começa vazio, como após uma divergência
+    private final TreeSet<Long> livres = new TreeSet<>();
+
+    @BeforeEach
+    public void setUp() {
+        for (long id = 1; id <= VAGAS; id++) {
+            livres.add(id);
+        }
+        Mockito.when(vagaRepository.findMaxId()).thenReturn(VAGAS);
+        Mockito.when(vagaRepository.findIdsByStatusEntre(Mockito.eq(LIVRE), Mockito.anyLong(), Mockito.anyLong(), Mockito.any(Pageable.class)))
+                .thenAnswer(invocacao -> {
+                    Long aposId = invocacao.getArgument(1);
+                    Long ateId = invocacao.getArgument(2);
+                    Pageable pageable = invocacao.getArgument(3);
+                    return livres.subSet(aposId, false, ateId, true).stream().limit(pageable.getPageSize()).toList();
+                });
+        Mockito.when(vagaRepository.updateStatusByIdAndStatus(Mockito.anyLong(), Mockito.eq(LIVRE), Mockito.eq(OCUPADA)))
+                .thenAnswer(invocacao -> livres.remove((Long) invocacao.getArgument(0)) ? 1 : 0);
+        Mockito.when(vagaRepository.findById(Mockito.anyLong())).thenAnswer(invocacao -> {
+            Vaga vaga = new Vaga();
+            vaga.setId(invocacao.getArgument(0));
+            return Optional.of(vaga);
+        });
+    }
+
+    @Test
+    public void ocuparVagaLivre_ComMaisCheckinsEmAndamentoQueCandidatasPorConsulta_OcuparAsVagasRestantes() {
+        // 90 check-ins concorrentes ainda em andamento mantêm as suas vagas reservadas: bem mais que uma página de candidatas
+        List<Long> reservadasPorOutros = livres.stream().filter(id -> id % 10 != 0).toList();
+        reservadasPorOutros.forEach(vagaLivreIndex::reservarPendente);
+
+        Set<Long> ocupadas = new HashSet<>();
+        for (int i = 0; i < VAGAS - reservadasPorOutros.size(); i++) {
+            ocupadas.add(vagaService.ocuparVagaLivre().getId());
+        }
+
+        Assertions.assertThat(ocupadas).containsExactlyInAnyOrder(10L, 20L, 30L, 40L, 50L, 60L, 70L, 80L, 90L, 100L);
+        Assertions.assertThatThrownBy(vagaService::ocuparVagaLivre).isInstanceOf(VagaDisponivelException.class);
+    }
+}
@@ -0,0 +1,9 @@
+insert into USUARIOS (id, username, password, role)
+    values (100, 'ana@email.com.br', '$2a$10$AtWo422MdyRQ1RgPzmJNnuDB7xN0GW38sXT4rnBFBqGnMyVmVEf4O', 'ROLE_ADMIN');
+insert into USUARIOS (id, username, password, role)
+    values (101, 'bia@email.com.br', '$2a$10$AtWo422MdyRQ1RgPzmJNnuDB7xN0GW38sXT4rnBFBqGnMyVmVEf4O', 'ROLE_CLIENTE');
+
+insert into CLIENTES (id, nome, cpf, id_usuario) values (21, 'Biatriz Rodrigues', '09191773016', 101);
+
+insert into vagas (id, codigo, status, descricao)
+    select x, concat('C-', x), 'LIVRE', 'Vaga de teste' from system_range(1000, 1299);